@@ -0,0 +1,58 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemStatus;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Shared fixtures for the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Item item(long n) {
+        Item item = new Item(n, "Item " + n, "Description of item " + n, ItemStatus.NEW, null);
+        item.setEmail("user" + n + "@example.com");
+        item.setVersion(0L);
+        return item;
+    }
+
+    /**
+     * Starts the application without a web server against a private in-memory H2 database.
+     * @param properties additional {@code key=value} properties, overriding {@code application.properties}
+     */
+    static ConfigurableApplicationContext startApplication(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN"));
+        all.addAll(List.of(properties));
+        //passed as arguments: default properties would lose against application.properties
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * @return {@code count} unsaved items
+     */
+    static List<Item> newItems(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(n -> {
+                    Item item = item(n);
+                    item.setId(null);
+                    item.setVersion(null);
+                    return item;
+                })
+                .toList();
+    }
+}
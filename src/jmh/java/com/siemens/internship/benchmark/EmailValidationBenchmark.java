@@ -0,0 +1,56 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.EmailValidator;
+import com.siemens.internship.Item;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of the email validation performed by {@link Item#setEmail(String)} on every deserialization,
+ * compared with the regular expression {@link EmailValidator} replaced, both precompiled and through
+ * {@link String#matches(String)} as the setter used to call it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmailValidationBenchmark {
+
+    @Param({"user.name@example.com", "first.last-name_01@sub.domain.example.org", "invalid-email@.com"})
+    private String email;
+
+    private static final String EMAIL_REGEX = "^[A-Za-z][A-Za-z0-9._-]*@[A-Za-z0-9][A-Za-z0-9._-]*\\.[A-Za-z]+$";
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+
+    private final Item item = new Item();
+
+    @Benchmark
+    public void setEmail(Blackhole blackhole) {
+        try {
+            item.setEmail(email);
+            blackhole.consume(item.getEmail());
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public boolean validator() {
+        return EmailValidator.isValid(email);
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    @Benchmark
+    public boolean stringMatches() {
+        return email.matches(EMAIL_REGEX);
+    }
+}
@@ -0,0 +1,94 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.ItemExportFormat;
+import com.siemens.internship.ItemExportService;
+import com.siemens.internship.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full export of all items: the JSON list of {@code GET /api/items} (all entities loaded, then serialized by Jackson)
+ * against {@code GET /api/items/export} as CSV and binary. Each benchmark returns the number of bytes written,
+ * and the setup prints the export sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemExportBenchmark {
+
+    @Param({"10000", "100000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemExportService exportService;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkData.startApplication();
+        itemService = context.getBean(ItemService.class);
+        exportService = context.getBean(ItemExportService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        var newItems = BenchmarkData.newItems(items);
+        for (int from = 0; from < newItems.size(); from += 1000) {
+            itemService.saveAll(newItems.subList(from, Math.min(from + 1000, newItems.size())));
+        }
+        System.out.printf("%nExport size for %d items: json=%d, csv=%d, bin=%d bytes%n", items, json(), csv(), bin());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long json() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, itemService.findAll());
+        return out.count;
+    }
+
+    @Benchmark
+    public long csv() throws IOException {
+        return export(ItemExportFormat.CSV);
+    }
+
+    @Benchmark
+    public long bin() throws IOException {
+        return export(ItemExportFormat.BINARY);
+    }
+
+    private long export(ItemExportFormat format) throws IOException {
+        //the controller writes to the servlet output stream the same way
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.export(format, Channels.newChannel(out));
+        return out.count;
+    }
+
+    /**
+     * Discards what is written, like a fast client would consume it.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.ItemJournal;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable storage modes compared: the in-memory database with the {@link ItemJournal} against a file-backed H2
+ * database, with the plain in-memory database as the baseline.
+ * <ul>
+ *     <li>{@code save}: throughput of {@link ItemService#save} from 8 threads.</li>
+ *     <li>{@code restart}: time until the application is up again with {@code items} items, i.e. snapshot restore
+ *     for the journal and opening the database file for H2.</li>
+ * </ul>
+ * H2 writes its file lazily and does not fsync each commit, so it is faster but loses the last commits on a power
+ * failure; the journal returns only once the change is forced to disk.
+ */
+@Fork(1)
+public class ItemJournalBenchmark {
+
+    /**
+     * Starts the application with one of the storage modes in a fresh directory.
+     */
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"memory", "journal", "h2-file"})
+        private String store;
+
+        private Path directory;
+
+        ConfigurableApplicationContext start() {
+            return switch (store) {
+                case "journal" -> BenchmarkData.startApplication("item.journal.enabled=true",
+                        "item.journal.dir=" + directory);
+                case "h2-file" -> BenchmarkData.startApplication(
+                        "spring.datasource.url=jdbc:h2:file:" + directory.resolve("items"));
+                default -> BenchmarkData.startApplication();
+            };
+        }
+
+        @Setup(Level.Trial)
+        public void createDirectory() throws IOException {
+            directory = Files.createTempDirectory("item-store");
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteDirectory() throws IOException {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Running {
+        private ConfigurableApplicationContext context;
+        private ItemService itemService;
+
+        @Setup(Level.Trial)
+        public void setup(Store store) {
+            context = store.start();
+            itemService = context.getBean(ItemService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stored {
+        @Param({"100000"})
+        private int items;
+
+        private Store store;
+        private ConfigurableApplicationContext context;
+
+        @Setup(Level.Trial)
+        public void setup(Store store) {
+            this.store = store;
+            ConfigurableApplicationContext initial = store.start();
+            ItemService itemService = initial.getBean(ItemService.class);
+            var newItems = BenchmarkData.newItems(items);
+            for (int from = 0; from < newItems.size(); from += 1000) {
+                itemService.saveAll(newItems.subList(from, Math.min(from + 1000, newItems.size())));
+            }
+            initial.close();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(8)
+    public Object save(Running running) {
+        return running.itemService.save(BenchmarkData.newItems(1).get(0));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long restart(Stored stored) {
+        stored.context = stored.store.start();
+        return stored.context.getBean(ItemRepository.class).count();
+    }
+}
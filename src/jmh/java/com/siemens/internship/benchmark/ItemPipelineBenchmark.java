@@ -0,0 +1,64 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemPipeline;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ItemService;
+import com.siemens.internship.ItemStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The staged {@link ItemPipeline} against one task per item ({@link ItemService#processItemsAsync()}),
+ * reported as time per item. Every invocation first resets all items to {@link ItemStatus#NEW}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(ItemPipelineBenchmark.ITEMS)
+public class ItemPipelineBenchmark {
+    static final int ITEMS = 500;
+
+    @Param({"0ms", "1ms", "100ms"})
+    private String delay;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkData.startApplication("item.processing.delay=" + delay);
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        itemService.saveAll(BenchmarkData.newItems(ITEMS));
+        ids = itemRepository.findAllIds();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetStatuses() {
+        itemRepository.updateStatusByIds(ids, ItemStatus.NEW);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> perItemTasks() {
+        return itemService.processItemsAsync().join();
+    }
+
+    @Benchmark
+    public Object pipeline() {
+        return itemService.processItemsInPipeline();
+    }
+}
@@ -0,0 +1,96 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemPage;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ItemSearchIndex;
+import com.siemens.internship.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * First page (100 items) of a search over item names and descriptions: the {@link ItemSearchIndex} against the
+ * equivalent {@code LIKE '%term%'} query, which H2 can only answer by scanning the table in ID order until the page is
+ * full. The {@code *Ids} benchmarks measure the lookup alone, the {@code *Page} benchmarks include loading the items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {"red", "green", "blue", "wooden", "metal", "chair", "table", "lamp", "desk",
+            "shelf", "large", "small", "modern", "vintage", "outdoor", "kitchen"};
+    private static final String LIKE_QUERY = "SELECT id FROM item WHERE (LOWER(name) LIKE ? OR LOWER(description) LIKE ?) "
+            + "AND (LOWER(name) LIKE ? OR LOWER(description) LIKE ?) ORDER BY id LIMIT 100";
+
+    @Param({"1000", "100000"})
+    private int items;
+
+    //a pair matching a large share of the items, and a selective pair that one item in 1000 matches
+    @Param({"red chair", "limited red"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemSearchIndex searchIndex;
+    private ItemRepository itemRepository;
+    private JdbcTemplate jdbcTemplate;
+    private String[] likeArguments;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkData.startApplication();
+        itemService = context.getBean(ItemService.class);
+        searchIndex = context.getBean(ItemSearchIndex.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Item> newItems = BenchmarkData.newItems(items);
+        for (int i = 0; i < newItems.size(); i++) {
+            Item item = newItems.get(i);
+            item.setName(word(i, 1) + " " + word(i, 7) + " " + item.getName());
+            item.setDescription(word(i, 3) + " " + word(i, 5) + " " + word(i, 11) + " " + item.getDescription()
+                    + (i % 1000 == 0 ? " limited edition" : ""));
+        }
+        for (int from = 0; from < newItems.size(); from += 1000) {
+            itemService.saveAll(newItems.subList(from, Math.min(from + 1000, newItems.size())));
+        }
+        String[] terms = query.split(" ");
+        likeArguments = IntStream.range(0, 4).mapToObj(i -> "%" + terms[i / 2] + "%").toArray(String[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long[] indexIds() {
+        return searchIndex.search(query, Long.MIN_VALUE, 100);
+    }
+
+    @Benchmark
+    public List<Long> likeIds() {
+        return jdbcTemplate.queryForList(LIKE_QUERY, Long.class, (Object[]) likeArguments);
+    }
+
+    @Benchmark
+    public ItemPage indexPage() {
+        return itemService.search(query, null, 100);
+    }
+
+    @Benchmark
+    public List<Item> likePage() {
+        return itemRepository.findAllById(likeIds());
+    }
+
+    private static String word(int item, int multiplier) {
+        return WORDS[(int) ((item * 2654435761L * multiplier >>> 7) % WORDS.length)];
+    }
+}
@@ -0,0 +1,95 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemJsonCache;
+import com.siemens.internship.ItemJsonHttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of item lists, as done by {@code GET /api/items}, and writing the same response through the
+ * Jackson converter or, with {@code item.json-cache.enabled}, from the warm {@link ItemJsonCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private static final Type ITEM_LIST = new TypeReference<List<Item>>() { }.getType();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Item> items;
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+    private ItemJsonHttpMessageConverter cachedConverter;
+
+    @Setup
+    public void setup() throws IOException {
+        items = LongStream.rangeClosed(1, size)
+                .mapToObj(BenchmarkData::item)
+                .toList();
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        cachedConverter = new ItemJsonHttpMessageConverter(
+                new ItemJsonCache(objectMapper, true, DataSize.ofMegabytes(64)));
+        writeListCached();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeSingle() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items.get(0));
+    }
+
+    @Benchmark
+    public int writeListJackson() throws IOException {
+        ResponseBody response = new ResponseBody();
+        jacksonConverter.write(items, ITEM_LIST, MediaType.APPLICATION_JSON, response);
+        return response.body.size();
+    }
+
+    @Benchmark
+    public int writeListCached() throws IOException {
+        ResponseBody response = new ResponseBody();
+        cachedConverter.write(items, ITEM_LIST, MediaType.APPLICATION_JSON, response);
+        return response.body.size();
+    }
+
+    private static final class ResponseBody implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
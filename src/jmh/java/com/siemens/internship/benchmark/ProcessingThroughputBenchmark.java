@@ -0,0 +1,72 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemRepository;
+import com.siemens.internship.ItemService;
+import com.siemens.internship.ItemStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of {@link ItemService#processItemsAsync()}, reported as time per item.
+ * Every invocation first resets all items to {@link ItemStatus#NEW}, so each run processes the full set.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(ProcessingThroughputBenchmark.ITEMS)
+public class ProcessingThroughputBenchmark {
+    static final int ITEMS = 500;
+
+    @Param({"0ms", "1ms", "100ms"})
+    private String delay;
+
+    @Param({"fixed", "fork-join"})
+    private String executorMode;
+
+    @Param({"false", "true"})
+    private String writeBehind;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkData.startApplication(
+                "item.processing.delay=" + delay,
+                "item.processing.executor.mode=" + executorMode,
+                "item.processing.write-behind.enabled=" + writeBehind);
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        itemService.saveAll(BenchmarkData.newItems(ITEMS));
+        ids = itemRepository.findAllIds();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetStatuses() {
+        itemRepository.updateStatusByIds(ids, ItemStatus.NEW);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> processItemsAsync() {
+        return itemService.processItemsAsync().join();
+    }
+
+    @Benchmark
+    public Object processItemsInChunks() {
+        return itemService.processItemsInChunks(100);
+    }
+}
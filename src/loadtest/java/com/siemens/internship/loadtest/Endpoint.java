@@ -0,0 +1,34 @@
+package com.siemens.internship.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The item API calls the load test can generate, named in the {@code mix} option by their lower-case name.
+ */
+enum Endpoint {
+    /** {@code GET /api/items/{id}} of a seeded item. */
+    GET,
+    /** {@code GET /api/items/page}, the first page of 50 items. */
+    LIST,
+    /** {@code POST /api/items} of a new item. */
+    POST,
+    /** {@code PUT /api/items/{id}} of a seeded item, without {@code If-Match}. */
+    PUT,
+    /** {@code DELETE /api/items/{id}} of an item created by an earlier {@link #POST}. */
+    DELETE,
+    /** {@code GET /api/items/process}, processing all pending items. */
+    PROCESS;
+
+    String parameter() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Endpoint fromParameter(String parameter) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.parameter().equals(parameter)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint " + parameter);
+    }
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Responses and latencies of one endpoint during the measured part of a run.
+ * Latencies are taken from the time a request was scheduled to start, not from when it was sent,
+ * so a server that falls behind shows up in the percentiles instead of lowering the request rate.
+ */
+final class EndpointStats {
+    //microseconds, up to one hour with three significant digits
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+    void recordResponse(int status, long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a request that got no response, e.g. because it timed out or the connection was refused.
+     */
+    void recordFailure(Exception error) {
+        failures.increment();
+        firstFailure.compareAndSet(null, error.toString());
+    }
+
+    /**
+     * Counts a request that could not be made, e.g. a delete while no created item is left.
+     */
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    /**
+     * @param name name of the endpoint in the report
+     * @param histogram the latencies to report, usually {@link #latencies()}
+     * @param seconds length of the measured part of the run
+     */
+    static EndpointReport report(String name, Histogram histogram, Map<Integer, Long> statuses, long failures,
+                                 String firstFailure, long skipped, double seconds) {
+        long responses = histogram.getTotalCount();
+        return new EndpointReport(name, responses + failures, statuses, failures, firstFailure, skipped,
+                responses / seconds, percentileMillis(histogram, 50), percentileMillis(histogram, 99),
+                percentileMillis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    EndpointReport report(String name, double seconds) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return report(name, latencies, counts, failures.sum(), firstFailure.get(), skipped.sum(), seconds);
+    }
+
+    private static double percentileMillis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Result of one endpoint, or of all endpoints together.
+     * @param requests requests with a response or a failure
+     * @param statuses number of responses per HTTP status
+     * @param failures requests without a response
+     * @param firstFailure the error of the first request without a response, if any
+     * @param skipped requests not made because no item was available
+     * @param throughput responses per second
+     */
+    record EndpointReport(String endpoint, long requests, Map<Integer, Long> statuses, long failures,
+                          String firstFailure, long skipped, double throughput, double p50Millis, double p99Millis,
+                          double p999Millis, double maxMillis) {
+    }
+}
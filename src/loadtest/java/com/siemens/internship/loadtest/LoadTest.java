@@ -0,0 +1,253 @@
+package com.siemens.internship.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.Item;
+import com.siemens.internship.ItemService;
+import com.siemens.internship.ItemStatus;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+/**
+ * Open-model HTTP load test of the item API.
+ * <p>
+ * Starts the application on a random port, seeds items through the {@link ItemService} and then starts requests at
+ * a fixed rate, each endpoint picked at random by its weight in the mix. Requests are started on schedule no matter
+ * how many earlier ones are still waiting for a response, and their latency counts from the scheduled start, so a
+ * slow server cannot hide its queueing time by slowing down the load (coordinated omission).
+ * <p>
+ * Prints throughput and p50/p99/p99.9 latencies per endpoint, and optionally writes them as JSON:
+ * {@code mvn -P loadtest -DskipTests verify -Dloadtest.args="rate=500 duration=60s mix=get:90,put:10"}.
+ * See {@link LoadTestOptions} for all options.
+ */
+public class LoadTest {
+    private static final int PAGE_SIZE = 50;
+
+    private final LoadTestOptions options;
+    private final URI items;
+    private final List<Long> seededIds;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    //items created by POST requests, the only ones DELETE requests remove so reads of seeded items keep succeeding
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private long maxSchedulingLagNanos;
+
+    LoadTest(LoadTestOptions options, URI items, List<Long> seededIds, ObjectMapper objectMapper) {
+        this.options = options;
+        this.items = items;
+        this.seededIds = seededIds;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+        options.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(options.applicationArguments());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .run(arguments.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Long> ids = seed(context.getBean(ItemService.class), options.items());
+            LoadTestReport report = new LoadTest(options, URI.create("http://localhost:" + port + "/api/items"), ids,
+                    context.getBean(ObjectMapper.class)).run();
+            System.out.print(report.format());
+            if (options.report() != null) {
+                Files.createDirectories(options.report().toAbsolutePath().getParent());
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+                System.out.println("Report written to " + options.report());
+            }
+        }
+    }
+
+    private static List<Long> seed(ItemService itemService, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += 1000) {
+            List<Item> batch = LongStream.range(from, Math.min(from + 1000, count))
+                    .mapToObj(n -> new Item(null, "Item " + n, "Description of item " + n, ItemStatus.NEW,
+                            "user" + n + "@example.com"))
+                    .toList();
+            itemService.saveAll(batch).forEach(item -> ids.add(item.getId()));
+        }
+        return ids;
+    }
+
+    /**
+     * Generates the load for the warmup and the measured duration, then waits for the outstanding responses.
+     */
+    LoadTestReport run() throws InterruptedException {
+        Endpoint[] endpoints = options.mix().keySet().toArray(Endpoint[]::new);
+        int[] cumulativeWeights = new int[endpoints.length];
+        int totalWeight = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            totalWeight += options.mix().get(endpoints[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        ExecutorService senders = newSenderExecutor(options.virtualThreads());
+        for (long n = 0; ; n++) {
+            long scheduled = start + (long) (n * intervalNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                maxSchedulingLagNanos = Math.max(maxSchedulingLagNanos, -wait);
+            }
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            Endpoint endpoint = endpoints[index];
+            Long seededId = seededIds.get(random.nextInt(seededIds.size()));
+            boolean measured = scheduled >= measureFrom;
+            senders.execute(() -> call(endpoint, seededId, scheduled, measured));
+        }
+        senders.shutdown();
+        if (!senders.awaitTermination(options.timeout().toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            senders.shutdownNow();
+        }
+        return report(options.duration().toNanos() / 1_000_000_000.0);
+    }
+
+    private void call(Endpoint endpoint, Long seededId, long scheduled, boolean measured) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        try {
+            HttpRequest request = request(endpoint, seededId);
+            if (request == null) {
+                if (measured) {
+                    endpointStats.recordSkipped();
+                }
+                return;
+            }
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long latency = System.nanoTime() - scheduled;
+            if (endpoint == Endpoint.POST && response.statusCode() == 201) {
+                createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+            }
+            if (measured) {
+                endpointStats.recordResponse(response.statusCode(), latency);
+            }
+        } catch (IOException e) {
+            if (measured) {
+                endpointStats.recordFailure(e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the request to send, or {@code null} if there is no item to delete
+     */
+    private HttpRequest request(Endpoint endpoint, Long seededId) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(options.timeout());
+        return switch (endpoint) {
+            case GET -> builder.uri(itemUri(seededId)).GET().build();
+            case LIST -> builder.uri(URI.create(items + "/page?size=" + PAGE_SIZE)).GET().build();
+            case POST -> builder.uri(items).header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(newItemJson())).build();
+            case PUT -> builder.uri(itemUri(seededId)).header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(newItemJson())).build();
+            case DELETE -> {
+                Long id = createdIds.poll();
+                yield id == null ? null : builder.uri(itemUri(id)).DELETE().build();
+            }
+            case PROCESS -> builder.uri(URI.create(items + "/process")).GET().build();
+        };
+    }
+
+    private URI itemUri(Long id) {
+        return URI.create(items + "/" + id);
+    }
+
+    private byte[] newItemJson() throws IOException {
+        long n = sequence.incrementAndGet();
+        return objectMapper.writeValueAsBytes(new Item(null, "Load item " + n, "Written by the load test",
+                ItemStatus.NEW, "load" + n + "@example.com"));
+    }
+
+    private LoadTestReport report(double seconds) {
+        List<EndpointStats.EndpointReport> endpoints = new ArrayList<>();
+        Histogram all = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        Map<Integer, Long> allStatuses = new TreeMap<>();
+        long failures = 0;
+        String firstFailure = null;
+        long skipped = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats.EndpointReport report = entry.getValue().report(entry.getKey().parameter(), seconds);
+            endpoints.add(report);
+            all.add(entry.getValue().latencies());
+            report.statuses().forEach((status, count) -> allStatuses.merge(status, count, Long::sum));
+            failures += report.failures();
+            if (firstFailure == null) {
+                firstFailure = report.firstFailure();
+            }
+            skipped += report.skipped();
+        }
+        endpoints.add(EndpointStats.report("all", all, allStatuses, failures, firstFailure, skipped, seconds));
+        Map<String, Integer> mix = new TreeMap<>();
+        options.mix().forEach((endpoint, weight) -> mix.put(endpoint.parameter(), weight));
+        return new LoadTestReport(options.rate(), options.duration().toSeconds(), options.items(), mix,
+                options.virtualThreads() ? "virtual" : "platform",
+                TimeUnit.NANOSECONDS.toMillis(maxSchedulingLagNanos), endpoints);
+    }
+
+    /**
+     * One thread per request, so a request is never queued behind another one on the client side.
+     * The project targets Java 17, so the Java 21 factory of virtual threads is resolved at runtime.
+     */
+    private static ExecutorService newSenderExecutor(boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual threads require a Java 21+ runtime, current is "
+                        + Runtime.version(), e);
+            }
+        }
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-test-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
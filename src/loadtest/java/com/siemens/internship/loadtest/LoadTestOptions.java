@@ -0,0 +1,100 @@
+package com.siemens.internship.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load test run, given as {@code key=value} arguments:
+ * <ul>
+ *     <li>{@code items}: items seeded before the run, default 1000</li>
+ *     <li>{@code rate}: requests started per second over all endpoints, default 200</li>
+ *     <li>{@code duration}: length of the measured part of the run, default 30s</li>
+ *     <li>{@code warmup}: load generated before measuring starts, default 5s</li>
+ *     <li>{@code mix}: relative weight per {@link Endpoint}, default {@code get:70,list:5,post:10,put:10,delete:5};
+ *     endpoints not listed are not called</li>
+ *     <li>{@code threads}: {@code platform} or {@code virtual} (Java 21+) threads sending the requests</li>
+ *     <li>{@code timeout}: time after which a request counts as failed, default 30s</li>
+ *     <li>{@code report}: file the JSON report is written to, none by default</li>
+ *     <li>{@code app.<property>}: passed to the application, e.g. {@code app.item.processing.delay=10ms}</li>
+ * </ul>
+ */
+record LoadTestOptions(int items, double rate, Duration duration, Duration warmup, Map<Endpoint, Integer> mix,
+                       boolean virtualThreads, Duration timeout, Path report, List<String> applicationArguments) {
+
+    static LoadTestOptions parse(String... args) {
+        int items = 1000;
+        double rate = 200;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(5);
+        Map<Endpoint, Integer> mix = parseMix("get:70,list:5,post:10,put:10,delete:5");
+        boolean virtualThreads = false;
+        Duration timeout = Duration.ofSeconds(30);
+        Path report = null;
+        List<String> applicationArguments = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (key.startsWith("app.")) {
+                applicationArguments.add("--" + key.substring("app.".length()) + "=" + value);
+                continue;
+            }
+            switch (key) {
+                case "items" -> items = Integer.parseInt(value);
+                case "rate" -> rate = Double.parseDouble(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "mix" -> mix = parseMix(value);
+                case "threads" -> virtualThreads = switch (value) {
+                    case "virtual" -> true;
+                    case "platform" -> false;
+                    default -> throw new IllegalArgumentException("Threads must be platform or virtual, got " + value);
+                };
+                case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+                case "report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        if (items <= 0 || rate <= 0 || duration.isNegative() || duration.isZero() || warmup.isNegative()) {
+            throw new IllegalArgumentException("Items, rate and duration must be positive, warmup must not be negative");
+        }
+        if (mix.containsKey(Endpoint.DELETE) && !mix.containsKey(Endpoint.POST)) {
+            throw new IllegalArgumentException("Delete only removes items created by post, so the mix needs both");
+        }
+        return new LoadTestOptions(items, rate, duration, warmup, mix, virtualThreads, timeout, report,
+                List.copyOf(applicationArguments));
+    }
+
+    /**
+     * @param mix comma-separated {@code endpoint:weight} pairs
+     */
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0] + " must not be negative");
+            }
+            if (weight > 0) {
+                weights.put(Endpoint.fromParameter(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must contain an endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,41 @@
+package com.siemens.internship.loadtest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a load test run, as printed and written to the JSON report.
+ * @param rate requests started per second
+ * @param durationSeconds length of the measured part of the run
+ * @param items number of seeded items
+ * @param mix weight per endpoint
+ * @param threads kind of threads that sent the requests
+ * @param maxSchedulingLagMillis how far the generator fell behind its schedule at worst; if this is large, the
+ *                               machine running the test was the bottleneck, not the application
+ * @param endpoints results per endpoint, followed by all endpoints together
+ */
+record LoadTestReport(double rate, long durationSeconds, int items, Map<String, Integer> mix, String threads,
+                      long maxSchedulingLagMillis, List<EndpointStats.EndpointReport> endpoints) {
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n%.0f requests/s for %ds against %d items, mix %s, %s threads%n",
+                rate, durationSeconds, items, mix, threads));
+        out.append(String.format(Locale.ROOT, "%-8s %9s %10s %9s %9s %9s %9s %8s %7s  %s%n", "endpoint", "requests",
+                "resp/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "failures", "skipped", "statuses"));
+        for (EndpointStats.EndpointReport endpoint : endpoints) {
+            out.append(String.format(Locale.ROOT, "%-8s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %8d %7d  %s%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.throughput(), endpoint.p50Millis(),
+                    endpoint.p99Millis(), endpoint.p999Millis(), endpoint.maxMillis(), endpoint.failures(),
+                    endpoint.skipped(), endpoint.statuses()));
+        }
+        for (EndpointStats.EndpointReport endpoint : endpoints) {
+            if (endpoint.firstFailure() != null && !endpoint.endpoint().equals("all")) {
+                out.append(String.format(Locale.ROOT, "first %s failure: %s%n", endpoint.endpoint(), endpoint.firstFailure()));
+            }
+        }
+        out.append(String.format(Locale.ROOT, "max scheduling lag: %d ms%n", maxSchedulingLagMillis));
+        return out.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingestion request.
+ * @param received number of records read from the request
+ * @param inserted number of items stored
+ * @param rejected number of records that failed validation
+ * @param errors details of the rejected records, limited to the first {@value ItemBulkIngestService#MAX_REPORTED_ERRORS}
+ * @param aborted {@code true} if the request body was malformed and reading stopped before its end
+ */
+public record BulkIngestResult(long received, long inserted, long rejected, List<BulkRecordError> errors,
+                               boolean aborted) {
+}
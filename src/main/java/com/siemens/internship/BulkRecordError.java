@@ -0,0 +1,9 @@
+package com.siemens.internship;
+
+/**
+ * A record of a bulk request that was rejected.
+ * @param index zero-based position of the record in the request
+ * @param error why the record was rejected
+ */
+public record BulkRecordError(long index, String error) {
+}
@@ -0,0 +1,65 @@
+package com.siemens.internship;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of equally sized direct buffers. Direct buffers live outside the heap and are expensive to allocate and only
+ * freed by the garbage collector, so they are kept for reuse instead. When the pool is empty a new buffer is allocated;
+ * buffers released while the pool is full are dropped.
+ */
+public class ByteBufferPool {
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * @param bufferSize capacity of each buffer in bytes
+     * @param maxPooled maximum number of idle buffers kept
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("Buffer size and pool size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * @return a cleared buffer of {@link #getBufferSize()} bytes, to be handed back with {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && buffer.isDirect()) {
+            free.offer(buffer.clear());
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return how many buffers were allocated so far
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * @return how many buffers are idle in the pool
+     */
+    public int getPooled() {
+        return free.size();
+    }
+}
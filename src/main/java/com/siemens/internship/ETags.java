@@ -0,0 +1,62 @@
+package com.siemens.internship;
+
+/**
+ * Builds and compares the entity tags used for conditional item requests.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @return the strong ETag of one item, derived from its ID and version
+     */
+    static String of(Item item) {
+        return "\"" + item.getId() + "-" + item.getVersion() + "\"";
+    }
+
+    /**
+     * @return the strong ETag of the whole item collection, derived from its aggregate fingerprint
+     */
+    static String of(ItemsFingerprint fingerprint) {
+        return "\"items-" + fingerprint.getCount() + "-" + fingerprint.getIdSum() + "-" + fingerprint.getVersionSum() + "\"";
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header using weak comparison.
+     * @return {@code true} if the header matches {@code etag}, i.e. the client's copy is current
+     */
+    static boolean matchesIfNoneMatch(String header, String etag) {
+        return matches(header, etag, true);
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header using strong comparison.
+     * @return {@code true} if the header matches {@code etag}, i.e. the client modifies the current state
+     */
+    static boolean matchesIfMatch(String header, String etag) {
+        return matches(header, etag, false);
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.siemens.internship;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Bean Validation adapter for {@link ValidEmail}, delegating to {@link EmailValidator}.
+ */
+public class EmailConstraintValidator implements ConstraintValidator<ValidEmail, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || EmailValidator.isValid(value);
+    }
+}
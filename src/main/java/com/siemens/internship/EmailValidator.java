@@ -0,0 +1,75 @@
+package com.siemens.internship;
+
+/**
+ * Validates email addresses in a single pass over the characters, without allocating.
+ * <p>
+ * Accepts exactly the addresses matched by {@code ^[A-Za-z][A-Za-z0-9._-]*@[A-Za-z0-9][A-Za-z0-9._-]*\.[A-Za-z]+$}:
+ * a local part starting with a letter, one {@code @}, and a domain starting with a letter or digit
+ * whose part after the last dot consists of letters only.
+ * Unlike {@link String#matches(String)}, no {@link java.util.regex.Pattern} is compiled and no matcher is created per call.
+ */
+public final class EmailValidator {
+
+    private EmailValidator() {
+    }
+
+    /**
+     * @param email the address to check, must not be {@code null}
+     * @return {@code true} if the address is well-formed
+     */
+    public static boolean isValid(CharSequence email) {
+        int length = email.length();
+        if (length == 0 || !isLetter(email.charAt(0))) {
+            return false;
+        }
+
+        //local part, up to the only '@'
+        int i = 1;
+        while (i < length && email.charAt(i) != '@') {
+            if (!isWordChar(email.charAt(i))) {
+                return false;
+            }
+            i++;
+        }
+        i++;
+        if (i >= length || !isLetterOrDigit(email.charAt(i))) {
+            return false;
+        }
+
+        //domain: tld counts the letters after the last dot, -1 once a non-letter follows it
+        boolean dot = false;
+        int tld = 0;
+        for (i++; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                dot = true;
+                tld = 0;
+            } else if (isLetter(c)) {
+                if (tld >= 0) {
+                    tld++;
+                }
+            } else if (isDigit(c) || c == '_' || c == '-') {
+                tld = -1;
+            } else {
+                return false;
+            }
+        }
+        return dot && tld > 0;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetterOrDigit(c) || c == '.' || c == '_' || c == '-';
+    }
+}
@@ -1,37 +1,91 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
+//(status, id) serves both the pending-items keyset scan and the per-status counts
+@Table(indexes = @Index(name = "idx_item_status_id", columnList = "status, id"))
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    //pooled sequence: one round trip reserves 50 IDs, so batched inserts don't fetch an ID per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
-    private String status;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private ItemStatus status;
+    @ValidEmail
     private String email;
+    //incremented on every change, including bulk UPDATE statements; exposed to clients as the ETag
+    @Version
+    private Long version;
+    //processing lease, written only by the UPDATE statements of ItemLeaseManager and never exposed to clients
+    @JsonIgnore
+    @Column(length = 128, insertable = false, updatable = false)
+    private String claimedBy;
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Instant leaseExpiresAt;
+
+    public Item(Long id, String name, String description, ItemStatus status, String email) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        this.email = email;
+    }
 
     public void setEmail(String email) {
+        checkEmail(email);
+        this.email = email;
+    }
+
+    /**
+     * Validates an email address the same way {@link #setEmail(String)} does.
+     * @throws IllegalArgumentException if the address is empty or malformed
+     */
+    static void checkEmail(String email) {
         if(email == null || email.isEmpty()){
             throw new IllegalArgumentException("Email cannot be null or empty");
         }
-        if (!email.matches("^[A-Za-z][A-Za-z0-9._-]*@[A-Za-z0-9][A-Za-z0-9._-]*\\.[A-Za-z]+$")) {
+        if (!EmailValidator.isValid(email)) {
             throw new IllegalArgumentException("Invalid email format");
         }
-        this.email = email;
+    }
+
+    /**
+     * Items stored without a status, including items replaced without one, are pending processing.
+     */
+    @PrePersist
+    @PreUpdate
+    void defaultStatus() {
+        if (status == null) {
+            status = ItemStatus.NEW;
+        }
     }
 
 }
@@ -0,0 +1,128 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores items read from a JSON array or an NDJSON stream.
+ * <p>
+ * Records are parsed one at a time and validated individually: invalid records are reported and skipped
+ * without failing the rest of the request. Valid items are inserted in batches of {@code item.bulk.batch-size},
+ * so only one batch is held in memory and each batch is written with JDBC batch inserts. Stored batches are also
+ * cleared from a persistence context that outlives their transaction, e.g. the caller's.
+ */
+@Service
+public class ItemBulkIngestService {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${item.bulk.batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * Reads and stores all items from {@code body}, which holds either one JSON array of items
+     * or a sequence of whitespace-separated item objects (NDJSON).
+     * @return how many records were received, inserted and rejected, with per-record errors
+     * @throws IOException if the body cannot be read
+     */
+    public BulkIngestResult ingest(InputStream body) throws IOException {
+        long received = 0;
+        long inserted = 0;
+        long rejected = 0;
+        boolean aborted = false;
+        List<BulkRecordError> errors = new ArrayList<>();
+        List<Item> batch = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                String error = validate(parser.readValueAsTree(), batch);
+                if (error != null) {
+                    rejected++;
+                    addError(errors, received, error);
+                }
+                received++;
+                if (batch.size() >= batchSize) {
+                    inserted += flush(batch);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            //the stream itself is malformed, so the position of the following records is unknown
+            rejected++;
+            addError(errors, received++, "Malformed JSON: " + e.getOriginalMessage());
+            aborted = true;
+        }
+        inserted += flush(batch);
+        return new BulkIngestResult(received, inserted, rejected, List.copyOf(errors), aborted);
+    }
+
+    /**
+     * Converts one record and adds it to {@code batch} if it is valid.
+     * @return the reason the record was rejected, or {@code null} if it was accepted
+     */
+    private String validate(JsonNode node, List<Item> batch) {
+        if (node == null || !node.isObject()) {
+            return "Record is not a JSON object";
+        }
+        Item item;
+        try {
+            item = objectMapper.treeToValue(node, Item.class);
+        } catch (JsonProcessingException e) {
+            //Item.setEmail rejects invalid addresses during deserialization
+            return e.getCause() instanceof IllegalArgumentException ? e.getCause().getMessage() : e.getOriginalMessage();
+        }
+        if (item.getId() != null) {
+            return "Id must not be set";
+        }
+        if (item.getEmail() == null) {
+            return "Email cannot be null or empty";
+        }
+        item.setVersion(null);
+        batch.add(item);
+        return null;
+    }
+
+    private static void addError(List<BulkRecordError> errors, long index, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new BulkRecordError(index, error));
+        }
+    }
+
+    private int flush(List<Item> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = itemService.saveAll(batch).size();
+        batch.clear();
+        //the inserted items would otherwise stay managed until an enclosing persistence context closes
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        entityManager.clear();
+        return size;
+    }
+}
@@ -0,0 +1,66 @@
+package com.siemens.internship;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, in-process read-through cache of items by ID, backed by Caffeine (W-TinyLFU eviction).
+ * <p>
+ * Writers invalidate rather than update entries, so concurrent writes can never leave an older state cached
+ * depending on the order their cache updates arrive. An invalidation waits for any load of the same ID still in
+ * flight and then discards its result, so once a write has completed no reader can observe the previous state.
+ * Cached items are shared and must be treated as read-only.
+ * Setting {@code item.cache.max-size} to 0 effectively disables caching.
+ */
+@Component
+public class ItemCache {
+
+    private final Cache<Long, Item> cache;
+
+    @Autowired
+    public ItemCache(@Value("${item.cache.max-size:10000}") long maxSize,
+                     @Value("${item.cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached item, or loads it with {@code loader} and caches it. Missing items are not cached.
+     */
+    public Optional<Item> get(Long id, Function<Long, Optional<Item>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Removes an item; must be called after every database write of that item has completed.
+     */
+    public void invalidate(Long id) {
+        cache.asMap().remove(id);
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        ids.forEach(this::invalidate);
+    }
+
+    /**
+     * @return hit, miss and eviction counters accumulated since startup
+     */
+    public ItemCacheStats stats() {
+        cache.cleanUp(); //apply pending evictions so the counters are up to date
+        CacheStats stats = cache.stats();
+        return new ItemCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                cache.estimatedSize(), stats.hitRate());
+    }
+}
@@ -0,0 +1,12 @@
+package com.siemens.internship;
+
+/**
+ * Counters of the item cache.
+ * @param hits lookups answered from the cache
+ * @param misses lookups that went to the database
+ * @param evictions entries removed because of size or TTL limits
+ * @param size approximate number of cached items
+ * @param hitRate ratio of hits to lookups
+ */
+public record ItemCacheStats(long hits, long misses, long evictions, long size, double hitRate) {
+}
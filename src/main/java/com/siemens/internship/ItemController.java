@@ -1,73 +1,271 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItemBulkIngestService bulkIngestService;
+
+    @Autowired
+    private ItemExportService exportService;
+
     /**
      * Retrieves all items from the database.
-     * @return HTTP 200 OK with a list of all {@link Item} objects.
+     * <p>
+     * The response carries an ETag computed from a cheap table fingerprint, so a matching {@code If-None-Match}
+     * is answered with 304 before any item is loaded.
+     * @param ifNoneMatch the ETag of the client's cached copy, if any
+     * @return HTTP 200 OK with a list of all {@link Item} objects, or HTTP 304 NOT MODIFIED if the client's copy is current
      */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+    public ResponseEntity<List<Item>> getAllItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of(itemService.fingerprint());
+        if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(itemService.findAll());
+    }
+
+    /**
+     * Retrieves one page of items using keyset pagination on the ID.
+     * @param cursor the {@code nextCursor} returned by the previous page; omit for the first page
+     * @param size the maximum number of items to return (1 to {@value #MAX_PAGE_SIZE})
+     * @return HTTP 200 OK with an {@link ItemPage}, or HTTP 400 BAD REQUEST if the size is out of range
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ItemPage> getItemPage(@RequestParam(required = false) Long cursor,
+                                                @RequestParam(defaultValue = "100") int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.findPage(cursor, size), HttpStatus.OK);
+    }
+
+    /**
+     * Searches item names and descriptions with the in-memory search index, paginated by ID like {@link #getItemPage}.
+     * @param q whitespace-separated terms that must all occur; a term ending in {@code *} matches every word starting with it
+     * @param cursor the {@code nextCursor} returned by the previous page; omit for the first page
+     * @param size the maximum number of items to return (1 to {@value #MAX_PAGE_SIZE})
+     * @return HTTP 200 OK with an {@link ItemPage} of matching items, or HTTP 400 BAD REQUEST if the query has no term
+     *         or the size is out of range
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ItemPage> searchItems(@RequestParam String q,
+                                                @RequestParam(required = false) Long cursor,
+                                                @RequestParam(defaultValue = "100") int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(itemService.search(q, cursor, size), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Returns the size and estimated memory footprint of the search index.
+     * @return HTTP 200 OK with the {@link ItemSearchStats}
+     */
+    @GetMapping("/search/stats")
+    public ResponseEntity<ItemSearchStats> getSearchStats() {
+        return new ResponseEntity<>(itemService.searchStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Streams all items as newline-delimited JSON, writing each item as soon as it is read from the database.
+     * @return HTTP 200 OK with an NDJSON body containing one {@link Item} per line
+     */
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems() {
+        StreamingResponseBody body = out -> itemService.streamAll(item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    /**
+     * Exports all items for bulk consumers, reading rows straight from the database without building entities.
+     * @param format {@code csv} for RFC 4180 CSV with a header row, or {@code bin} for length-prefixed binary records
+     *               that {@link ItemExportReader} reads back
+     * @return HTTP 200 OK with the export as an attachment, or HTTP 400 BAD REQUEST if the format is unknown
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestParam(defaultValue = "csv") String format) {
+        ItemExportFormat exportFormat;
+        try {
+            exportFormat = ItemExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> exportService.export(exportFormat, Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("items." + exportFormat.getParameter()).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Returns the number of items per status, computed with an aggregate over the status index.
+     * @return HTTP 200 OK with a map from every {@link ItemStatus} to its item count
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<ItemStatus, Long>> getStatusCounts() {
+        return new ResponseEntity<>(itemService.countByStatus(), HttpStatus.OK);
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the item lookup cache.
+     * @return HTTP 200 OK with the {@link ItemCacheStats}
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ItemCacheStats> getCacheStats() {
+        return new ResponseEntity<>(itemService.cacheStats(), HttpStatus.OK);
     }
 
     /**
-     * Creates a new item.
+     * Creates a new item. Any ID or version sent by the client is ignored.
      * @param item the {@link Item} to create (must pass validation)
      * @param result holds validation results; if errors exist, returns 400
-     * @return HTTP 201 CREATED with the saved item, or HTTP 400 BAD REQUEST if validation fails
+     * @return HTTP 201 CREATED with the saved item and its ETag, or HTTP 400 BAD REQUEST if validation fails
      */
     @PostMapping
     public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result) {
         if (result.hasErrors()) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST); //fixed the status codes for bad request vs successful request
         }
-        return new ResponseEntity<>(itemService.save(item), HttpStatus.CREATED);
+        item.setId(null);
+        item.setVersion(null);
+        Item saved = itemService.save(item);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(saved)).body(saved);
+    }
+
+    /**
+     * Creates many items at once from a JSON array or an NDJSON stream.
+     * Invalid records are skipped and reported individually, valid ones are inserted in JDBC batches.
+     * @param body the request body, read incrementally
+     * @return HTTP 200 OK with a {@link BulkIngestResult} listing per-record errors,
+     *         or HTTP 400 BAD REQUEST if the body is malformed and nothing was inserted
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkIngestResult> createItems(InputStream body) throws IOException {
+        BulkIngestResult result = bulkIngestService.ingest(body);
+        HttpStatus status = result.aborted() && result.inserted() == 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return new ResponseEntity<>(result, status);
     }
 
     /**
      * Returns a single item by its ID.
      * @param id the ID of the item to return
-     * @return HTTP 200 OK with the item if found, or HTTP 404 NOT FOUND if not
+     * @param ifNoneMatch the ETag of the client's cached copy, if any
+     * @return HTTP 200 OK with the item and its ETag if found, HTTP 304 NOT MODIFIED if the client's copy is current,
+     *         or HTTP 404 NOT FOUND if not
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
+    public ResponseEntity<Item> getItemById(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return itemService.findById(id)
-                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
+                .map(item -> {
+                    String etag = ETags.of(item);
+                    if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Item>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(item);
+                })
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND)); //fixed the status code for not found instance
     }
 
     /**
      * Updates an existing item with new data after checking it exists.
+     * <p>
+     * With an {@code If-Match} header the update only succeeds if the item still has that ETag; the check is
+     * enforced again by the version column when saving, so concurrent writers cannot overwrite each other.
+     * Without the header the latest version is overwritten, unless it changes while this request is saving.
      * @param id the ID of the item to update
      * @param item the updated {@link Item} object
-     * @return HTTP 200 OK if update was successful, or HTTP 404 NOT FOUND if item doesn't exist
+     * @param ifMatch the ETag the client based its changes on, if any
+     * @return HTTP 200 OK with the new ETag if update was successful, HTTP 404 NOT FOUND if item doesn't exist,
+     *         HTTP 412 PRECONDITION FAILED if the item no longer matches {@code If-Match},
+     *         or HTTP 409 CONFLICT if the item changed concurrently and no {@code If-Match} was given
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item item) {
+    public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item item,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Item> existingItem = itemService.findById(id);
-        if (existingItem.isPresent()) {
-            item.setId(id);
-            return new ResponseEntity<>(itemService.save(item), HttpStatus.OK); //fixed status code to return 200 instead of Created, as this is an update.
-        } else {
+        if (existingItem.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND); //fixed status code to correctly show item not found.
         }
+        if (ifMatch != null && !ETags.matchesIfMatch(ifMatch, ETags.of(existingItem.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        item.setId(id);
+        item.setVersion(existingItem.get().getVersion());
+        try {
+            Item saved = itemService.save(item);
+            return ResponseEntity.ok().eTag(ETags.of(saved)).body(saved); //fixed status code to return 200 instead of Created, as this is an update.
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Applies a partial update: only the supplied fields change, using a single UPDATE statement.
+     * @param id the ID of the item to update
+     * @param patch the fields to change
+     * @return HTTP 204 NO CONTENT if the item was updated, HTTP 400 BAD REQUEST if the email is invalid,
+     *         or HTTP 404 NOT FOUND if the item doesn't exist
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchItem(@PathVariable Long id, @RequestBody ItemPatch patch) {
+        try {
+            return itemService.patch(id, patch)
+                    ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                    : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -88,14 +286,128 @@ public class ItemController {
     }
 
     /**
-     * Initiates asynchronous processing of all items (status set to "PROCESSED").
+     * Initiates asynchronous processing of all pending items (status set to {@link ItemStatus#PROCESSED}).
      * @return a {@link CompletableFuture} containing HTTP 200 OK with processed items,
+     *         HTTP 429 TOO MANY REQUESTS or HTTP 503 SERVICE UNAVAILABLE with {@code Retry-After} if processing is saturated,
      *         or HTTP 500 INTERNAL SERVER ERROR if processing fails
      */
-    //updated method to update the return type, as well as ensuring it is returning asynchronously to avoid incorrect or premature responses.
     @GetMapping("/process")
     public CompletableFuture<ResponseEntity<List<Item>>> processItems() {
-        return itemService.processItemsAsync().thenApply(item -> new ResponseEntity<>(item, HttpStatus.OK))
-                .exceptionally(ex -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        CompletableFuture<List<Item>> run;
+        try {
+            run = itemService.processItemsAsync();
+        } catch (ProcessingRejectedException e) {
+            //without an async executor in front of the service, admission rejects before a future exists
+            return CompletableFuture.completedFuture(rejected(e));
+        }
+        return run.thenApply(item -> new ResponseEntity<>(item, HttpStatus.OK))
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof ProcessingRejectedException rejected) {
+                        return rejected(rejected);
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * Processes all pending items set-based in keyset-paginated chunks and reports the achieved throughput.
+     * @param chunkSize number of items per chunk, defaults to {@code item.processing.chunk-size}
+     * @return HTTP 200 OK with a {@link ProcessingReport}, HTTP 400 BAD REQUEST if the chunk size is not positive,
+     *         or HTTP 429 TOO MANY REQUESTS with {@code Retry-After} if too many processing runs are in progress
+     */
+    @GetMapping("/process/batched")
+    public ResponseEntity<ProcessingReport> processItemsInChunks(
+            @RequestParam(defaultValue = "${item.processing.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(itemService.processItemsInChunks(chunkSize), HttpStatus.OK);
+        } catch (ProcessingRejectedException e) {
+            return rejected(e);
+        }
+    }
+
+    /**
+     * Processes all pending items through the staged pipeline and reports the throughput and queue depths per stage.
+     * @return HTTP 200 OK with an {@link ItemPipelineReport},
+     *         or HTTP 429 TOO MANY REQUESTS with {@code Retry-After} if too many processing runs are in progress
+     */
+    @GetMapping("/process/pipeline")
+    public ResponseEntity<ItemPipelineReport> processItemsInPipeline() {
+        try {
+            return new ResponseEntity<>(itemService.processItemsInPipeline(), HttpStatus.OK);
+        } catch (ProcessingRejectedException e) {
+            return rejected(e);
+        }
+    }
+
+    /**
+     * Processes all pending items and pushes each result to the client as a Server-Sent Event as soon as it completes.
+     * <p>
+     * Emits an {@code item} event per processed {@link Item}, a {@code failure} event per {@link ItemFailure}
+     * and a final {@code summary} event with the {@link ProcessingReport}. When the client reads slowly,
+     * at most {@code window} items are in flight, so processing slows down instead of buffering results.
+     *
+     * @param window maximum number of in-flight items, defaults to {@code item.processing.stream.window}
+     * @return HTTP 200 OK with a {@code text/event-stream} body, HTTP 400 BAD REQUEST if the window is not positive,
+     *         or HTTP 429 TOO MANY REQUESTS with {@code Retry-After} if too many processing runs are in progress
+     */
+    @GetMapping(value = "/process/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> processItemsStream(
+            @RequestParam(defaultValue = "${item.processing.stream.window:32}") int window) {
+        if (window <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        SseEmitter emitter = new SseEmitter(0L); //no timeout, the stream ends with the summary event
+        CompletableFuture<ProcessingReport> run;
+        try {
+            run = itemService.processItemsStreaming(window, new ItemProcessingListener() {
+                @Override
+                public void onProcessed(Item item) {
+                    send(emitter, SseEmitter.event().name("item").id(String.valueOf(item.getId())).data(item));
+                }
+
+                @Override
+                public void onFailed(Long itemId, Throwable error) {
+                    send(emitter, SseEmitter.event().name("failure").id(String.valueOf(itemId))
+                            .data(new ItemFailure(itemId, error.getMessage())));
+                }
+            });
+        } catch (ProcessingRejectedException e) {
+            return rejected(e);
+        }
+        //stop submitting items once the client is gone
+        emitter.onError(ex -> run.cancel(false));
+        emitter.onTimeout(() -> run.cancel(false));
+        run.whenComplete((report, ex) -> {
+            if (ex != null) {
+                emitter.completeWithError(ex);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("summary").data(report));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+
+    /**
+     * Builds the answer for a processing run that was not admitted, telling the client when to retry.
+     */
+    static <T> ResponseEntity<T> rejected(ProcessingRejectedException e) {
+        return ResponseEntity.status(e.getStatus()).header(HttpHeaders.RETRY_AFTER, e.retryAfterSeconds()).build();
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
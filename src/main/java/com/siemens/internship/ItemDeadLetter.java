@@ -0,0 +1,47 @@
+package com.siemens.internship;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item whose processing failed permanently in a {@link ProcessingRun}; the item itself is marked
+ * {@link ItemStatus#FAILED} so later runs skip it until it is changed.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_item_dead_letter_run", columnList = "runId, itemId"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemDeadLetter {
+    static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long itemId;
+    private Long runId;
+    private int attempts;
+    @Column(length = MAX_ERROR_LENGTH)
+    private String error;
+    private Instant failedAt;
+
+    public ItemDeadLetter(Long itemId, Long runId, int attempts, Throwable error) {
+        this.itemId = itemId;
+        this.runId = runId;
+        this.attempts = attempts;
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        this.error = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        this.failedAt = Instant.now();
+    }
+}
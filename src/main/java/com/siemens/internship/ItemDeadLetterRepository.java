@@ -0,0 +1,10 @@
+package com.siemens.internship;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ItemDeadLetterRepository extends JpaRepository<ItemDeadLetter, Long> {
+
+    List<ItemDeadLetter> findByRunIdOrderByItemId(Long runId);
+}
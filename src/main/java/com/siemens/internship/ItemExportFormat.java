@@ -0,0 +1,64 @@
+package com.siemens.internship;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats of the bulk item export, see {@link ItemExportService}.
+ */
+public enum ItemExportFormat {
+    /**
+     * RFC 4180 CSV in UTF-8 with a header row and CRLF line endings. Fields containing a comma, quote or line break
+     * are quoted; a {@code null} field is left empty, while an empty string is written as {@code ""}.
+     */
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    /**
+     * Length-prefixed binary records, read back with {@link ItemExportReader}. All numbers are big-endian.
+     * <pre>
+     * header:  int32 magic "ITEM", int8 format version
+     * record:  int32 length of the rest of the record, then
+     *          int64 id, int64 version (-1 if none), int8 status ordinal,
+     *          name, description, email, each as int32 UTF-8 byte length (-1 for null) followed by the bytes
+     * trailer: int32 0, int64 number of records
+     * </pre>
+     * Readers skip bytes at the end of a record they don't know, so fields can be appended within a format version.
+     * New {@link ItemStatus} constants must be appended, since the status is stored by ordinal.
+     */
+    BINARY("bin", MediaType.APPLICATION_OCTET_STREAM);
+
+    static final int BINARY_MAGIC = 0x4954454D; //"ITEM"
+    static final byte BINARY_VERSION = 1;
+
+    private final String parameter;
+    private final MediaType mediaType;
+
+    ItemExportFormat(String parameter, MediaType mediaType) {
+        this.parameter = parameter;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return the value of the {@code format} request parameter and the file extension, e.g. {@code csv}
+     */
+    public String getParameter() {
+        return parameter;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param parameter {@code csv} or {@code bin}, case-insensitive
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static ItemExportFormat fromParameter(String parameter) {
+        for (ItemExportFormat format : values()) {
+            if (format.parameter.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + parameter);
+    }
+}
@@ -0,0 +1,176 @@
+package com.siemens.internship;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an export in the {@link ItemExportFormat#BINARY} format, one item at a time.
+ * <pre>
+ * try (ItemExportReader reader = new ItemExportReader(in)) {
+ *     for (Item item = reader.read(); item != null; item = reader.read()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * The trailer is checked against the records read, so an export that was cut off fails instead of looking complete.
+ * An export already in memory, e.g. a memory-mapped file, is read from a {@link ByteBuffer} without copying the records.
+ */
+public class ItemExportReader implements Closeable {
+    private static final ItemStatus[] STATUSES = ItemStatus.values();
+
+    //exactly one of in and source is set
+    private final DataInputStream in;
+    private final ByteBuffer source;
+    private byte[] record = new byte[256];
+    private long count;
+    private boolean finished;
+
+    /**
+     * Reads the header of the export.
+     * @throws IOException if the stream cannot be read or does not start with a binary item export
+     */
+    public ItemExportReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 65536));
+        this.source = null;
+        readHeader();
+    }
+
+    /**
+     * Reads the header of the export from the current position of {@code source}.
+     * Items are decoded straight from the buffer, which must not change while it is read.
+     * @throws IOException if the buffer does not start with a binary item export
+     */
+    public ItemExportReader(ByteBuffer source) throws IOException {
+        this.in = null;
+        this.source = source.slice();
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        if (readInt() != ItemExportFormat.BINARY_MAGIC) {
+            throw new IOException("Not a binary item export");
+        }
+        byte version = readRecord(1).get();
+        if (version != ItemExportFormat.BINARY_VERSION) {
+            throw new IOException("Unsupported item export version " + version);
+        }
+    }
+
+    /**
+     * @return the next item, or {@code null} once the export is complete
+     * @throws EOFException if the export ends before its trailer
+     * @throws IOException if the stream cannot be read or is malformed
+     */
+    public Item read() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int length = readInt();
+        if (length == 0) {
+            long expected = readRecord(8).getLong();
+            if (expected != count) {
+                throw new IOException("Item export announces " + expected + " records, but contains " + count);
+            }
+            finished = true;
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid record length " + length + " after " + count + " records");
+        }
+        ByteBuffer buffer = readRecord(length);
+        try {
+            long id = buffer.getLong();
+            long version = buffer.getLong();
+            int status = buffer.get();
+            if (status < 0 || status >= STATUSES.length) {
+                throw new IOException("Unknown status " + status + " of item " + id);
+            }
+            //the values were valid when stored, so the constructor skips the email check of setEmail
+            Item item = new Item(id, getString(buffer), getString(buffer), STATUSES[status], getString(buffer));
+            item.setVersion(version < 0 ? null : version);
+            count++;
+            return item;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed record after " + count + " records", e);
+        }
+    }
+
+    /**
+     * @return the number of items read so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Reads a complete export into memory.
+     * @throws IOException if the stream cannot be read or the export is malformed or incomplete
+     */
+    public static List<Item> readAll(InputStream in) throws IOException {
+        List<Item> items = new ArrayList<>();
+        try (ItemExportReader reader = new ItemExportReader(in)) {
+            for (Item item = reader.read(); item != null; item = reader.read()) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private int readInt() throws IOException {
+        return readRecord(4).getInt();
+    }
+
+    /**
+     * @return a buffer holding the next {@code length} bytes of the export
+     * @throws EOFException if the export ends before
+     */
+    private ByteBuffer readRecord(int length) throws IOException {
+        if (source != null) {
+            if (source.remaining() < length) {
+                throw new EOFException();
+            }
+            ByteBuffer slice = source.slice(source.position(), length);
+            source.position(source.position() + length);
+            return slice;
+        }
+        if (length > record.length) {
+            record = new byte[Math.max(length, record.length * 2)];
+        }
+        in.readFully(record, 0, length);
+        return ByteBuffer.wrap(record, 0, length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (!buffer.hasArray()) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
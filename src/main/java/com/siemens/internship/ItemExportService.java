@@ -0,0 +1,281 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Exports all items as CSV or length-prefixed binary, see {@link ItemExportFormat}.
+ * <p>
+ * Rows are read from a forward-only JDBC cursor and encoded column by column into a direct buffer taken from a
+ * {@link ByteBufferPool}, which is written to the target channel whenever the next record might not fit.
+ * No {@link Item} entity or persistence context is created and column values are encoded straight into the buffer,
+ * so an export of any size needs one buffer of memory and produces little more garbage than the JDBC driver does.
+ */
+@Service
+public class ItemExportService {
+    private static final String SELECT_ITEMS = "SELECT id, version, status, name, description, email FROM item ORDER BY id";
+    private static final byte[] CSV_HEADER = "id,version,status,name,description,email\r\n".getBytes(StandardCharsets.US_ASCII);
+    //id, version, status byte and the three string lengths of a binary record, after its length prefix
+    private static final int BINARY_FIXED_LENGTH = 8 + 8 + 1 + 3 * 4;
+    //two numbers of at most 20 characters, the status, the quotes of three fields and the separators of a CSV line
+    private static final int CSV_FIXED_LENGTH = 2 * 20 + 16 + 3 * 2 + 5 + 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemStatusBuffer statusBuffer;
+    private final ByteBufferPool bufferPool;
+    private final int fetchSize;
+
+    @Autowired
+    public ItemExportService(JdbcTemplate jdbcTemplate, ItemStatusBuffer statusBuffer,
+                             @Value("${item.export.buffer-size:65536}") int bufferSize,
+                             @Value("${item.export.pooled-buffers:8}") int pooledBuffers,
+                             @Value("${item.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statusBuffer = statusBuffer;
+        this.bufferPool = new ByteBufferPool(bufferSize, pooledBuffers);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes all items, ordered by ID, to {@code channel}. Status changes still waiting in the
+     * {@link ItemStatusBuffer} are flushed first, so the export matches what readers of the API see.
+     * @return the number of exported items
+     * @throws IOException if writing to the channel fails
+     */
+    public long export(ItemExportFormat format, WritableByteChannel channel) throws IOException {
+        statusBuffer.flush();
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            ExportWriter writer = new ExportWriter(format, channel, buffer);
+            writer.begin();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ITEMS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, writer);
+            writer.finish();
+            return writer.rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    ByteBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Encodes the rows of one export into its buffer.
+     */
+    private static final class ExportWriter implements RowCallbackHandler {
+        private final ItemExportFormat format;
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private long rows;
+
+        ExportWriter(ItemExportFormat format, WritableByteChannel channel, ByteBuffer buffer) {
+            this.format = format;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void begin() {
+            if (format == ItemExportFormat.CSV) {
+                buffer.put(CSV_HEADER);
+            } else {
+                buffer.putInt(ItemExportFormat.BINARY_MAGIC).put(ItemExportFormat.BINARY_VERSION);
+            }
+        }
+
+        void finish() throws IOException {
+            if (format == ItemExportFormat.BINARY) {
+                reserve(12);
+                buffer.putInt(0).putLong(rows);
+            }
+            drain(buffer);
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            long version = rs.getLong(2);
+            if (rs.wasNull()) {
+                version = -1;
+            }
+            ItemStatus status = ItemStatus.valueOf(rs.getString(3));
+            String name = rs.getString(4);
+            String description = rs.getString(5);
+            String email = rs.getString(6);
+            //3 bytes per char covers UTF-8 and doubled quotes; a record that never fits the buffer gets its own
+            int maxLength = (format == ItemExportFormat.CSV ? CSV_FIXED_LENGTH : 4 + BINARY_FIXED_LENGTH)
+                    + 3 * (length(name) + length(description) + length(email));
+            try {
+                ByteBuffer target = buffer;
+                if (maxLength > buffer.capacity()) {
+                    drain(buffer);
+                    target = ByteBuffer.allocate(maxLength);
+                } else {
+                    reserve(maxLength);
+                }
+                if (format == ItemExportFormat.CSV) {
+                    putCsvRecord(target, id, version, status, name, description, email);
+                } else {
+                    putBinaryRecord(target, id, version, status, name, description, email);
+                }
+                if (target != buffer) {
+                    drain(target);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain(buffer);
+            }
+        }
+
+        private void drain(ByteBuffer source) throws IOException {
+            source.flip();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            source.clear();
+        }
+    }
+
+    private static void putCsvRecord(ByteBuffer out, long id, long version, ItemStatus status,
+                                     String name, String description, String email) {
+        putDecimal(out, id);
+        out.put((byte) ',');
+        if (version >= 0) {
+            putDecimal(out, version);
+        }
+        out.put((byte) ',');
+        putAscii(out, status.name());
+        out.put((byte) ',');
+        putCsvField(out, name);
+        out.put((byte) ',');
+        putCsvField(out, description);
+        out.put((byte) ',');
+        putCsvField(out, email);
+        out.put((byte) '\r').put((byte) '\n');
+    }
+
+    private static void putBinaryRecord(ByteBuffer out, long id, long version, ItemStatus status,
+                                        String name, String description, String email) {
+        int start = out.position();
+        out.putInt(0);
+        out.putLong(id).putLong(version).put((byte) status.ordinal());
+        putBinaryString(out, name);
+        putBinaryString(out, description);
+        putBinaryString(out, email);
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    private static void putBinaryString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        int start = out.position();
+        out.putInt(0);
+        putUtf8(out, value);
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    private static void putCsvField(ByteBuffer out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            putUtf8(out, value);
+            return;
+        }
+        out.put((byte) '"');
+        int from = 0;
+        for (int i = value.indexOf('"'); i >= 0; i = value.indexOf('"', from)) {
+            putUtf8(out, value, from, i + 1);
+            out.put((byte) '"');
+            from = i + 1;
+        }
+        putUtf8(out, value, from, value.length());
+        out.put((byte) '"');
+    }
+
+    private static void putDecimal(ByteBuffer out, long value) {
+        if (value < 0) {
+            putAscii(out, Long.toString(value));
+            return;
+        }
+        int digits = 1;
+        for (long rest = value; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        int end = out.position() + digits;
+        for (int i = end - 1; i >= end - digits; i--) {
+            out.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        out.position(end);
+    }
+
+    private static void putAscii(ByteBuffer out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            out.put((byte) value.charAt(i));
+        }
+    }
+
+    private static void putUtf8(ByteBuffer out, String value) {
+        putUtf8(out, value, 0, value.length());
+    }
+
+    /**
+     * Encodes {@code value[from, to)} as UTF-8 without allocating, replacing unpaired surrogates with {@code ?}
+     * like {@link String#getBytes} does.
+     */
+    private static void putUtf8(ByteBuffer out, String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
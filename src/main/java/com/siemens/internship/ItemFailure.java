@@ -0,0 +1,9 @@
+package com.siemens.internship;
+
+/**
+ * Describes an item whose processing failed.
+ * @param itemId the ID of the item
+ * @param error the failure message
+ */
+public record ItemFailure(Long itemId, String error) {
+}
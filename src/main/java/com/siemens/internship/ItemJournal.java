@@ -0,0 +1,637 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Optional durable storage for items on top of the in-memory database, enabled with {@code item.journal.enabled}.
+ * <p>
+ * Every item written through {@link ItemService} is appended to a change log in {@code item.journal.dir} before the
+ * write returns. Concurrent writers share the fsync: a single writer thread forces everything appended while the
+ * previous batch was being written with one {@link FileChannel#force} (group commit).
+ * Every {@code item.journal.snapshot-interval}, when the log outgrows {@code item.journal.max-log-size}, and on
+ * shutdown, the log is rotated and the whole table is written as a snapshot in the {@link ItemExportFormat#BINARY}
+ * format, after which the older log segments are deleted.
+ * <p>
+ * At startup the latest snapshot is memory-mapped and inserted with JDBC batches, the log segments written since are
+ * replayed, up to a torn record at the end of a segment, and the ID sequence is moved past the restored items.
+ * Log records carry the item version and are only applied over older versions, so replaying a change the snapshot
+ * already contains is harmless.
+ * <p>
+ * Status changes made by processing are set-based UPDATEs that bypass {@link ItemService#save}; they become durable
+ * with the next snapshot. After a crash, items processed since then are pending again and are processed once more.
+ * Processing runs, dead letters and leases are not journaled.
+ */
+@Component
+//the item table has to exist before it can be restored
+@DependsOn("entityManagerFactory")
+//restores the items at startup, before the first request, even with spring.main.lazy-initialization
+@Lazy(false)
+public class ItemJournal implements AutoCloseable, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ItemJournal.class);
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    //length and checksum in front of every log record
+    private static final int RECORD_HEADER = 8;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String SEGMENT_PREFIX = "changes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RESTORE_BATCH_SIZE = 1000;
+    //Item allocates IDs in blocks of 50 from item_seq
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String SELECT_ITEM = "SELECT id, version, status, name, description, email FROM item WHERE id = ?";
+    private static final String INSERT_ITEM =
+            "INSERT INTO item (id, version, status, name, description, email) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ITEM = "UPDATE item SET version = ?, status = ?, name = ?, description = ?, "
+            + "email = ? WHERE id = ? AND version < ?";
+    private static final String DELETE_ITEM = "DELETE FROM item WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemExportService exportService;
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration snapshotInterval;
+    private final long maxLogSize;
+
+    //guards everything between the appending threads and the writer thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition batchSynced = lock.newCondition();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream();
+    private long appended;
+    private long synced;
+    private CompletableFuture<Long> rotation;
+    private IOException failure;
+    private boolean closed;
+
+    //only touched by the writer thread after open()
+    private FileChannel segment;
+    private long segmentNumber;
+    private final AtomicLong segmentSize = new AtomicLong();
+
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong syncedRecords = new AtomicLong();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final Object snapshotLock = new Object();
+    private Thread writer;
+    private ScheduledExecutorService snapshotter;
+
+    @Autowired
+    public ItemJournal(JdbcTemplate jdbcTemplate, ItemExportService exportService,
+                       @Value("${item.journal.enabled:false}") boolean enabled,
+                       @Value("${item.journal.dir:data/journal}") Path directory,
+                       @Value("${item.journal.snapshot-interval:5m}") Duration snapshotInterval,
+                       @Value("${item.journal.max-log-size:64MB}") DataSize maxLogSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportService = exportService;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.maxLogSize = maxLogSize.toBytes();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Restores the items from the journal into the empty database and starts logging. Does nothing when disabled.
+     * @throws IllegalStateException if the item table is not empty
+     * @throws IOException if the journal cannot be read or the new log segment cannot be created
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("The item journal can only be restored into an empty database, found "
+                    + existing + " items");
+        }
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        TreeMap<Long, Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        TreeMap<Long, Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        long snapshotNumber = snapshots.isEmpty() ? 0 : snapshots.lastKey();
+        long restored = snapshots.isEmpty() ? 0 : restoreSnapshot(snapshots.lastEntry().getValue());
+        long replayed = 0;
+        //a snapshot numbered n contains every change logged in the segments before n
+        for (Path path : segments.tailMap(snapshotNumber, true).values()) {
+            replayed += replay(path);
+        }
+        restartSequence();
+        log.info("Restored {} items from the snapshot and replayed {} logged changes in {} ms", restored, replayed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        segmentNumber = Math.max(snapshotNumber, segments.isEmpty() ? 0 : segments.lastKey()) + 1;
+        segment = openSegment(segmentNumber);
+        writer = new Thread(this::writeLoop, "item-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, snapshotInterval.toMillis(),
+                snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Logs the current state of a stored item and waits until the log is forced to disk.
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    public void upsert(Item item) {
+        upsertAll(List.of(item));
+    }
+
+    /**
+     * Logs the current state of stored items, waiting for a single fsync.
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    public void upsertAll(List<Item> items) {
+        if (!enabled || items.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream records = new ByteArrayOutputStream(items.size() * 128);
+        for (Item item : items) {
+            writeRecord(records, upsertRecord(item));
+        }
+        append(records, items.size());
+    }
+
+    /**
+     * Logs the current state of an item changed by an UPDATE statement, which does not return the item:
+     * the row is read back first. Nothing is logged if the item no longer exists.
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    public void updated(Long id) {
+        if (!enabled) {
+            return;
+        }
+        List<Item> items = jdbcTemplate.query(SELECT_ITEM, (rs, row) -> {
+            Item item = new Item(rs.getLong(1), rs.getString(4), rs.getString(5),
+                    ItemStatus.valueOf(rs.getString(3)), rs.getString(6));
+            item.setVersion(rs.getLong(2));
+            return item;
+        }, id);
+        upsertAll(items);
+    }
+
+    /**
+     * Logs the deletion of an item and waits until the log is forced to disk.
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    public void deleted(Long id) {
+        if (!enabled) {
+            return;
+        }
+        ByteArrayOutputStream record = new ByteArrayOutputStream(32);
+        writeRecord(record, ByteBuffer.allocate(9).put(DELETE).putLong(id).flip());
+        append(record, 1);
+    }
+
+    /**
+     * Rotates the log and writes all items to a new snapshot, then deletes the snapshot and log segments it replaces.
+     * @throws IOException if the snapshot cannot be written; the previous snapshot and the log are kept then
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long number = rotate();
+            long start = System.nanoTime();
+            Path temporary = directory.resolve(SNAPSHOT_PREFIX + number + SNAPSHOT_SUFFIX + ".tmp");
+            long items;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                items = exportService.export(ItemExportFormat.BINARY, channel);
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(SNAPSHOT_PREFIX + number + SNAPSHOT_SUFFIX),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            for (Path path : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(number).values()) {
+                Files.deleteIfExists(path);
+            }
+            for (Path path : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(number).values()) {
+                Files.deleteIfExists(path);
+            }
+            log.debug("Wrote snapshot {} with {} items in {} ms", number, items,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Takes a final snapshot, so the next start has no log to replay, and stops logging.
+     */
+    @Override
+    public void close() {
+        if (!enabled || writer == null || !writer.isAlive()) {
+            return;
+        }
+        snapshotter.shutdown();
+        snapshotQuietly();
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+            segment.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close the item journal", e);
+        }
+    }
+
+    /**
+     * @return how many fsyncs the log needed so far; compared to {@link #getSyncedRecords()} this shows the effect of
+     *         group commit
+     */
+    public long getSyncs() {
+        return syncs.get();
+    }
+
+    /**
+     * @return how many records were forced to disk so far
+     */
+    public long getSyncedRecords() {
+        return syncedRecords.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        FunctionCounter.builder("item.journal.syncs", syncs, AtomicLong::get)
+                .description("fsyncs of the item change log")
+                .register(registry);
+        FunctionCounter.builder("item.journal.records", syncedRecords, AtomicLong::get)
+                .description("records forced to the item change log")
+                .register(registry);
+        Gauge.builder("item.journal.log.size", segmentSize, AtomicLong::get)
+                .description("bytes in the current change log segment")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Hands records to the writer thread and waits until they are forced to disk.
+     */
+    private void append(ByteArrayOutputStream records, int count) {
+        lock.lock();
+        try {
+            ensureWritable();
+            records.writeTo(pending);
+            appended += count;
+            long target = appended;
+            workAvailable.signal();
+            while (synced < target) {
+                if (failure != null) {
+                    throw new IOException("The item journal failed", failure);
+                }
+                batchSynced.awaitUninterruptibly();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Asks the writer thread to continue in a new segment once everything appended so far is written.
+     * @return the number of the new segment
+     */
+    private long rotate() throws IOException {
+        CompletableFuture<Long> rotated = new CompletableFuture<>();
+        lock.lock();
+        try {
+            ensureWritable();
+            rotation = rotated;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return rotated.join();
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to rotate the item journal", e);
+        }
+    }
+
+    private void ensureWritable() throws IOException {
+        if (failure != null) {
+            throw new IOException("The item journal failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("The item journal is closed");
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long target;
+            long records;
+            CompletableFuture<Long> rotated;
+            lock.lock();
+            try {
+                while (pending.size() == 0 && rotation == null && !closed) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                if (pending.size() == 0 && rotation == null) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                target = appended;
+                records = appended - synced;
+                rotated = rotation;
+                rotation = null;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (batch.size() > 0) {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        segment.write(buffer);
+                    }
+                    segment.force(false);
+                    syncs.incrementAndGet();
+                    syncedRecords.addAndGet(records);
+                    segmentSize.addAndGet(batch.size());
+                }
+                if (rotated != null) {
+                    segment.close();
+                    segment = openSegment(++segmentNumber);
+                    segmentSize.set(0);
+                    rotated.complete(segmentNumber);
+                }
+            } catch (IOException e) {
+                log.error("Failed to write the item journal, further writes will fail", e);
+                if (rotated != null) {
+                    rotated.completeExceptionally(e);
+                }
+                lock.lock();
+                try {
+                    failure = e;
+                    batchSynced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                synced = target;
+                batch.reset();
+                spare = batch;
+                batchSynced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (segmentSize.get() > maxLogSize && snapshotScheduled.compareAndSet(false, true)) {
+                try {
+                    snapshotter.execute(this::snapshotQuietly);
+                } catch (RejectedExecutionException e) {
+                    //shutting down, close() takes the final snapshot
+                }
+            }
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write an item snapshot, the change log is kept", e);
+        } finally {
+            snapshotScheduled.set(false);
+        }
+    }
+
+    private long restoreSnapshot(Path path) throws IOException {
+        long restored = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ItemExportReader reader = new ItemExportReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            List<Object[]> batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+            for (Item item = reader.read(); item != null; item = reader.read()) {
+                batch.add(new Object[]{item.getId(), item.getVersion(), item.getStatus().name(), item.getName(),
+                        item.getDescription(), item.getEmail()});
+                if (batch.size() == RESTORE_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_ITEM, batch);
+                    restored += batch.size();
+                    batch.clear();
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ITEM, batch);
+            restored += batch.size();
+        }
+        return restored;
+    }
+
+    /**
+     * Applies the records of a log segment, stopping at the first incomplete or corrupt record,
+     * which a crash can leave at the end of the segment.
+     * @return the number of applied records
+     */
+    private long replay(Path path) throws IOException {
+        long replayed = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32C checksum = new CRC32C();
+            while (buffer.remaining() >= RECORD_HEADER) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int expected = buffer.getInt();
+                ByteBuffer record = length > 0 && length <= buffer.remaining()
+                        ? buffer.slice(buffer.position(), length) : null;
+                if (record != null) {
+                    checksum.reset();
+                    checksum.update(record.duplicate());
+                }
+                if (record == null || (int) checksum.getValue() != expected) {
+                    buffer.position(start);
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                apply(record);
+                replayed++;
+            }
+            if (buffer.hasRemaining()) {
+                log.warn("Ignoring a torn record at offset {} of {}", buffer.position(), path);
+            }
+        }
+        return replayed;
+    }
+
+    private void apply(ByteBuffer record) {
+        byte type = record.get();
+        long id = record.getLong();
+        if (type == DELETE) {
+            jdbcTemplate.update(DELETE_ITEM, id);
+            return;
+        }
+        long version = record.getLong();
+        String status = ItemStatus.values()[record.get()].name();
+        String name = getString(record);
+        String description = getString(record);
+        String email = getString(record);
+        //only newer versions replace a stored item
+        if (jdbcTemplate.update(UPDATE_ITEM, version, status, name, description, email, id, version) == 0) {
+            Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item WHERE id = ?", Long.class, id);
+            if (stored == null || stored == 0) {
+                jdbcTemplate.update(INSERT_ITEM, id, version, status, name, description, email);
+            }
+        }
+    }
+
+    /**
+     * Moves the ID sequence behind the restored items, so new items don't reuse their IDs.
+     */
+    private void restartSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM item", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        //the sequence value is the upper end of the next block of IDs; a sequence that is already past it stays
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR item_seq", Long.class);
+        if (next == null || next <= maxId + ID_ALLOCATION_SIZE) {
+            jdbcTemplate.execute("ALTER SEQUENCE item_seq RESTART WITH " + (maxId + ID_ALLOCATION_SIZE + 1));
+        }
+    }
+
+    private static ByteBuffer upsertRecord(Item item) {
+        byte[] name = bytes(item.getName());
+        byte[] description = bytes(item.getDescription());
+        byte[] email = bytes(item.getEmail());
+        ByteBuffer record = ByteBuffer.allocate(1 + 8 + 8 + 1 + 3 * 4 + length(name) + length(description) + length(email));
+        record.put(UPSERT).putLong(item.getId()).putLong(item.getVersion() == null ? 0 : item.getVersion())
+                .put((byte) item.getStatus().ordinal());
+        putString(record, name);
+        putString(record, description);
+        putString(record, email);
+        return record.flip();
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, ByteBuffer record) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER).putInt(record.remaining()).putInt((int) checksum.getValue());
+        out.write(header.array(), 0, RECORD_HEADER);
+        out.write(record.array(), 0, record.remaining());
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putString(ByteBuffer out, byte[] value) {
+        if (value == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        forceDirectory();
+        return channel;
+    }
+
+    /**
+     * Makes a created or renamed file in the journal directory durable. Not every platform can sync a directory.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot sync directory {}", directory, e);
+        }
+    }
+
+    /**
+     * @return the journal files named {@code prefix + number + suffix}, by number
+     */
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), path);
+                    } catch (NumberFormatException e) {
+                        //not a journal file
+                    }
+                }
+            });
+        }
+        return files;
+    }
+}
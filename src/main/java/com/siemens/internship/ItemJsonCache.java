@@ -0,0 +1,98 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Objects;
+
+/**
+ * Optional cache of the JSON encoding of items, enabled with {@code item.json-cache.enabled}, so that reads of
+ * unchanged items skip Jackson. {@link ItemJsonHttpMessageConverter} writes the cached bytes into responses.
+ * <p>
+ * Entries are looked up by ID and only used if they were encoded from the same version and status, the two values
+ * that change whenever anything about the item changes, including a status still waiting in the
+ * {@link ItemStatusBuffer}. A stale entry is therefore never served, even if an invalidation is missed; invalidating
+ * on writes only frees the memory early. The cache holds at most {@code item.json-cache.max-size} bytes of JSON,
+ * evicting by W-TinyLFU like the {@link ItemCache}.
+ */
+@Component
+public class ItemJsonCache implements MeterBinder {
+    //approximate size of an entry apart from its JSON: entry, key, version and array header
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private record Entry(Long version, ItemStatus status, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<Long, Entry> cache;
+
+    @Autowired
+    public ItemJsonCache(ObjectMapper objectMapper,
+                         @Value("${item.json-cache.enabled:false}") boolean enabled,
+                         @Value("${item.json-cache.max-size:64MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(enabled ? maxSize.toBytes() : 0)
+                .weigher((Long id, Entry entry) -> entry.json().length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the JSON encoding of {@code item}, from the cache if it holds this version and status of the item
+     * @throws JsonProcessingException if the item cannot be serialized
+     */
+    public byte[] toJson(Item item) throws JsonProcessingException {
+        if (!enabled || item.getId() == null) {
+            return objectMapper.writeValueAsBytes(item);
+        }
+        Entry entry = cache.getIfPresent(item.getId());
+        if (entry != null && entry.status() == item.getStatus() && Objects.equals(entry.version(), item.getVersion())) {
+            return entry.json();
+        }
+        byte[] json = objectMapper.writeValueAsBytes(item);
+        cache.put(item.getId(), new Entry(item.getVersion(), item.getStatus(), json));
+        return json;
+    }
+
+    public void invalidate(Long id) {
+        if (enabled) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * @return the bytes of JSON currently cached, including the estimated overhead per entry
+     */
+    public long weightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        CaffeineCacheMetrics.monitor(registry, cache, "item.json");
+        Gauge.builder("item.json.cache.size", this, ItemJsonCache::weightedSize)
+                .description("bytes held by the item JSON cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.siemens.internship;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Writes an {@link Item}, or a collection of items, as JSON assembled from the byte arrays of the
+ * {@link ItemJsonCache} instead of serializing every item again. Only registered while the cache is enabled,
+ * ahead of the Jackson converter, which still reads request bodies and writes every other type.
+ */
+public class ItemJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final ItemJsonCache jsonCache;
+
+    public ItemJsonHttpMessageConverter(ItemJsonCache jsonCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonCache = jsonCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Item.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Accepts items, and collections declared with an item element type such as {@code List<Item>}.
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw && Collection.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element
+                && Item.class.isAssignableFrom(element)) {
+            return canWrite(mediaType);
+        }
+        return canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Long getContentLength(Object object, MediaType contentType) throws IOException {
+        //the encoding is cached by the time writeInternal needs it again
+        return object instanceof Item item ? (long) jsonCache.toJson(item).length : null;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (object instanceof Item item) {
+            out.write(jsonCache.toJson(item));
+            return;
+        }
+        out.write('[');
+        boolean first = true;
+        for (Object element : (Collection<?>) object) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            if (element == null) {
+                out.write(NULL);
+            } else {
+                out.write(jsonCache.toJson((Item) element));
+            }
+        }
+        out.write(']');
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Items are read by the Jackson converter", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Items are read by the Jackson converter", inputMessage);
+    }
+}
@@ -0,0 +1,92 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributes pending items between application nodes sharing one database, using leases stored on the items.
+ * <p>
+ * A processing run claims pending items chunk by chunk: it picks items nobody holds a valid lease on and leases them
+ * to itself with a conditional UPDATE, so concurrent nodes never claim the same item and split the work between them.
+ * Processing an item clears its lease. Leases of a crashed node simply expire after
+ * {@code item.processing.lease.duration} and the items become claimable again, so the duration must comfortably
+ * exceed the time to process one chunk, and node clocks must agree to well within it.
+ * Processing is at-least-once: an item whose lease expired while it was being processed may be processed twice.
+ */
+@Component
+public class ItemLeaseManager {
+    private static final String DEFAULT_NODE_ID = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    //identifies this node in claimedBy, defaults to pid@host
+    @Value("${item.processing.lease.node-id:}")
+    private String nodeId = "";
+    @Value("${item.processing.lease.duration:5m}")
+    private Duration leaseDuration = Duration.ofMinutes(5);
+    @Value("${item.processing.lease.chunk-size:100}")
+    private int chunkSize = 100;
+
+    private final AtomicLong runs = new AtomicLong();
+
+    /**
+     * @return a lease owner unique to one processing run on this node
+     */
+    public String newOwner() {
+        return (nodeId.isEmpty() ? DEFAULT_NODE_ID : nodeId) + "/" + runs.incrementAndGet();
+    }
+
+    /**
+     * Leases the next chunk of pending items to {@code owner}.
+     * @return the IDs of the claimed items in ascending order, empty once no claimable item is left
+     */
+    public List<Long> claim(String owner) {
+        return claim(owner, Long.MIN_VALUE);
+    }
+
+    /**
+     * Leases the next chunk of pending items with an ID greater than {@code afterId} to {@code owner}, so a run can
+     * continue behind its previous chunk or its checkpoint instead of rescanning from the first item.
+     * @return the IDs of the claimed items in ascending order, empty once no claimable item is left
+     */
+    public List<Long> claim(String owner, Long afterId) {
+        while (true) {
+            Instant now = Instant.now();
+            List<Long> candidates = itemRepository.findClaimableIds(ItemStatus.NEW, afterId, now, PageRequest.of(0, chunkSize));
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+            int claimed = itemRepository.claim(candidates, ItemStatus.NEW, owner, now, now.plus(leaseDuration));
+            if (claimed == candidates.size()) {
+                return candidates;
+            }
+            //another node won some of the rows: keep ours, or try the next candidates if it won them all
+            if (claimed > 0) {
+                return itemRepository.findIdsClaimedBy(owner, candidates);
+            }
+        }
+    }
+
+    /**
+     * @return how long a claim stays valid without the item being processed
+     */
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    /**
+     * Releases the leases {@code owner} holds on items that are still pending, e.g. after a run failed or was cancelled.
+     */
+    public void release(String owner) {
+        itemRepository.releaseClaims(owner, ItemStatus.NEW);
+    }
+}
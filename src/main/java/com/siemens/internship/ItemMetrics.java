@@ -0,0 +1,108 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the item processing pipeline.
+ * <ul>
+ *     <li>{@code item.processing.phase}: timer per {@link Phase} of {@link ItemService#processItem(Long)}, with p50/p99</li>
+ *     <li>{@code item.processing.items}: counter of processed, failed and dead-lettered items, tagged by {@code result};
+ *     an item counts as failed once, when a run gives up on it, not once per failed attempt</li>
+ *     <li>{@code item.processing.retries}: counter of attempts repeated after a transient failure</li>
+ * </ul>
+ * Meters are registered once, so recording does not look them up on every call.
+ */
+@Component
+public class ItemMetrics {
+
+    public enum Phase {
+        FETCH, TRANSFORM, SAVE
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter retryCounter;
+
+    public ItemMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("item.processing.phase")
+                    .description("Time spent in one phase of processing a single item")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(0.5, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        processedCounter = Counter.builder("item.processing.items")
+                .description("Items processed")
+                .tag("result", "processed")
+                .register(registry);
+        failedCounter = Counter.builder("item.processing.items")
+                .description("Items processed")
+                .tag("result", "failed")
+                .register(registry);
+        deadLetteredCounter = Counter.builder("item.processing.items")
+                .description("Items processed")
+                .tag("result", "dead_lettered")
+                .register(registry);
+        retryCounter = Counter.builder("item.processing.retries")
+                .description("Item processing attempts repeated after a transient failure")
+                .register(registry);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} for {@code phase}.
+     * @param startNanos a {@link System#nanoTime()} reading taken when the phase started
+     * @return the current {@link System#nanoTime()}, to be used as start of the next phase
+     */
+    public long recordPhase(Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimers.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public Timer phaseTimer(Phase phase) {
+        return phaseTimers.get(phase);
+    }
+
+    public void processed(long count) {
+        processedCounter.increment(count);
+    }
+
+    public void failed() {
+        failedCounter.increment();
+    }
+
+    public void deadLettered() {
+        deadLetteredCounter.increment();
+    }
+
+    public void retried() {
+        retryCounter.increment();
+    }
+
+    public double processedCount() {
+        return processedCounter.count();
+    }
+
+    public double failedCount() {
+        return failedCounter.count();
+    }
+
+    public double deadLetteredCount() {
+        return deadLetteredCounter.count();
+    }
+
+    public double retryCount() {
+        return retryCounter.count();
+    }
+}
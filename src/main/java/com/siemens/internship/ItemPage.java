@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated item listing.
+ * @param items the items of this page, ordered by ID
+ * @param nextCursor the cursor to pass to fetch the following page, or {@code null} if this is the last page
+ */
+public record ItemPage(List<Item> items, Long nextCursor) {
+}
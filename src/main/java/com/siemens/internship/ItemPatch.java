@@ -0,0 +1,18 @@
+package com.siemens.internship;
+
+/**
+ * Partial update of an item: only non-null fields are applied.
+ * @param name new name, or {@code null} to keep the current one
+ * @param description new description, or {@code null} to keep the current one
+ * @param status new status, or {@code null} to keep it (or reset it to {@link ItemStatus#NEW} if content changes)
+ * @param email new email, or {@code null} to keep the current one
+ */
+public record ItemPatch(String name, String description, ItemStatus status, String email) {
+
+    /**
+     * @return {@code true} if the patch changes any field other than the status
+     */
+    public boolean changesContent() {
+        return name != null || description != null || email != null;
+    }
+}
@@ -0,0 +1,481 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Processes pending items as a pipeline of stages connected by bounded queues, so that each stage runs at its own
+ * parallelism instead of every item task running at the parallelism of its slowest step:
+ * <ol>
+ *     <li>{@code fetch}: claims the next chunk of pending items through the {@link ItemLeaseManager} and loads it
+ *     with one query,</li>
+ *     <li>{@code transform}: marks the item {@link ItemStatus#PROCESSED}, followed by every {@link ItemTransformStage}
+ *     bean as a stage of its own,</li>
+ *     <li>{@code enrich}: the simulated I/O of {@code item.processing.delay},</li>
+ *     <li>{@code persist}: writes up to {@code item.pipeline.persist.batch-size} items per JDBC batch.</li>
+ * </ol>
+ * Stage threads are set with {@code item.pipeline.<stage>.parallelism} and every queue holds at most
+ * {@code item.pipeline.queue-capacity} items, so a slow stage makes the stages before it wait rather than pile up
+ * items in memory.
+ * <p>
+ * An item failing in a stage is dropped from the run and stays pending; its lease is released when the run ends.
+ * An item changed by someone else while it was in the pipeline is not overwritten and counts as failed.
+ * Each run reports throughput, busy time and peak queue depth per stage; the current queue depths are exposed as
+ * {@code item.pipeline.queue.depth} and the items per stage as {@code item.pipeline.stage.items}.
+ */
+@Component
+public class ItemPipeline implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ItemPipeline.class);
+
+    private static final String FETCH = "fetch";
+    private static final String TRANSFORM = "transform";
+    private static final String ENRICH = "enrich";
+    private static final String PERSIST = "persist";
+
+    private static final String UPDATE_ITEM = "UPDATE item SET name = ?, description = ?, status = ?, email = ?, "
+            + "claimed_by = NULL, lease_expires_at = NULL, version = version + 1 WHERE id = ? AND version = ?";
+
+    //marks the end of a stage's input, one for each of its threads
+    private static final Item END = new Item();
+
+    @FunctionalInterface
+    private interface StageFunction {
+        Item apply(Item item) throws InterruptedException;
+    }
+
+    /**
+     * A stage as configured, with its totals over all runs.
+     */
+    private record StageDefinition(String name, int parallelism, StageFunction function,
+                                   LongAdder processed, LongAdder failed) {
+        StageDefinition(String name, int parallelism, StageFunction function) {
+            this(name, parallelism, function, new LongAdder(), new LongAdder());
+        }
+    }
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemLeaseManager leaseManager;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private ItemJsonCache jsonCache;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemJournal journal;
+    @Autowired
+    private ItemMetrics itemMetrics;
+    @Autowired
+    private ObjectProvider<ItemTransformStage> transformStages;
+
+    @Value("${item.processing.delay:100ms}")
+    private Duration processingDelay = Duration.ofMillis(100);
+    @Value("${item.pipeline.fetch.parallelism:1}")
+    private int fetchParallelism = 1;
+    @Value("${item.pipeline.transform.parallelism:2}")
+    private int transformParallelism = 2;
+    @Value("${item.pipeline.enrich.parallelism:16}")
+    private int enrichParallelism = 16;
+    @Value("${item.pipeline.persist.parallelism:1}")
+    private int persistParallelism = 1;
+    @Value("${item.pipeline.persist.batch-size:500}")
+    private int persistBatchSize = 500;
+    @Value("${item.pipeline.queue-capacity:256}")
+    private int queueCapacity = 256;
+
+    private List<StageDefinition> stages;
+    private final Set<Run> activeRuns = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Assembles the stages, including the {@link ItemTransformStage} beans in their order.
+     * @throws IllegalArgumentException if a parallelism, the queue capacity or the batch size is not positive,
+     *                                  or two stages have the same name
+     */
+    @PostConstruct
+    public void init() {
+        if (queueCapacity <= 0 || persistBatchSize <= 0) {
+            throw new IllegalArgumentException("Queue capacity and persist batch size must be positive");
+        }
+        List<StageDefinition> definitions = new ArrayList<>();
+        definitions.add(new StageDefinition(FETCH, fetchParallelism, null));
+        definitions.add(new StageDefinition(TRANSFORM, transformParallelism, item -> {
+            item.setStatus(ItemStatus.PROCESSED);
+            return item;
+        }));
+        transformStages.orderedStream().forEach(stage -> definitions.add(
+                new StageDefinition(stage.getName(), stage.getParallelism(), stage::transform)));
+        definitions.add(new StageDefinition(ENRICH, enrichParallelism, item -> {
+            if (!processingDelay.isZero()) {
+                Thread.sleep(processingDelay.toMillis());
+            }
+            return item;
+        }));
+        definitions.add(new StageDefinition(PERSIST, persistParallelism, null));
+
+        Set<String> names = new HashSet<>();
+        for (StageDefinition definition : definitions) {
+            if (definition.parallelism() <= 0) {
+                throw new IllegalArgumentException("Parallelism of stage " + definition.name() + " must be positive");
+            }
+            if (!names.add(definition.name())) {
+                throw new IllegalArgumentException("Duplicate pipeline stage " + definition.name());
+            }
+        }
+        stages = List.copyOf(definitions);
+    }
+
+    /**
+     * @return the names of the stages in pipeline order
+     */
+    public List<String> getStageNames() {
+        return stages.stream().map(StageDefinition::name).toList();
+    }
+
+    /**
+     * Processes every pending item this node manages to claim and returns once all of them went through the pipeline.
+     * @return the number of persisted and failed items, with statistics per stage
+     * @throws IllegalStateException if the run had to stop, e.g. because claiming items failed
+     */
+    public ItemPipelineReport run() {
+        Run run = new Run();
+        activeRuns.add(run);
+        try {
+            run.execute();
+        } finally {
+            activeRuns.remove(run);
+            leaseManager.release(run.owner);
+        }
+        ItemPipelineReport report = run.report();
+        log.info("Pipeline processing finished: {}", report);
+        return report;
+    }
+
+    /**
+     * One execution of the pipeline with its own queues and threads.
+     */
+    private final class Run {
+        private final String owner = leaseManager.newOwner();
+        private final List<Stage> runStages = new ArrayList<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private final Object claimLock = new Object();
+        private final long startNanos = System.nanoTime();
+        private final LongAdder persisted = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        //the highest ID claimed so far, guarded by claimLock
+        private Long lastClaimedId = Long.MIN_VALUE;
+        private volatile Throwable failure;
+
+        Run() {
+            Stage previous = null;
+            for (StageDefinition definition : stages) {
+                Stage stage = new Stage(definition, previous == null ? null : new ArrayBlockingQueue<>(queueCapacity));
+                if (previous != null) {
+                    previous.next = stage;
+                }
+                runStages.add(stage);
+                previous = stage;
+            }
+        }
+
+        void execute() {
+            for (Stage stage : runStages) {
+                for (int i = 0; i < stage.definition.parallelism(); i++) {
+                    Thread thread = new Thread(() -> work(stage), "item-pipeline-" + stage.definition.name() + "-" + i);
+                    thread.setDaemon(true);
+                    threads.add(thread);
+                }
+            }
+            threads.forEach(Thread::start);
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+                threads.forEach(this::joinUninterruptibly);
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Pipeline run stopped", failure);
+            }
+        }
+
+        private void work(Stage stage) {
+            try {
+                if (stage.input == null) {
+                    fetch(stage);
+                } else if (stage.next == null) {
+                    persist(stage);
+                } else {
+                    transform(stage);
+                }
+                stage.finish();
+            } catch (InterruptedException e) {
+                //interrupted by abort, which already recorded why
+                abort(e);
+            } catch (RuntimeException | Error e) {
+                abort(e);
+            }
+        }
+
+        private void fetch(Stage stage) throws InterruptedException {
+            while (true) {
+                List<Long> ids;
+                synchronized (claimLock) {
+                    ids = leaseManager.claim(owner, lastClaimedId);
+                    if (ids.isEmpty()) {
+                        return;
+                    }
+                    lastClaimedId = ids.get(ids.size() - 1);
+                }
+                long start = System.nanoTime();
+                List<Item> items = itemRepository.findAllById(ids);
+                stage.worked(start, items.size());
+                for (Item item : items) {
+                    stage.next.input.put(item);
+                }
+            }
+        }
+
+        private void transform(Stage stage) throws InterruptedException {
+            Item item;
+            while ((item = stage.take()) != END) {
+                long start = System.nanoTime();
+                Item transformed;
+                try {
+                    transformed = Objects.requireNonNull(stage.definition.function().apply(item),
+                            "Stage " + stage.definition.name() + " returned no item");
+                } catch (RuntimeException e) {
+                    stage.worked(start, 0);
+                    fail(stage, item, e);
+                    continue;
+                }
+                stage.worked(start, 1);
+                stage.next.input.put(transformed);
+            }
+        }
+
+        private void persist(Stage stage) throws InterruptedException {
+            List<Item> batch = new ArrayList<>(persistBatchSize);
+            boolean end = false;
+            while (!end) {
+                batch.add(stage.take());
+                stage.input.drainTo(batch, persistBatchSize - 1);
+                int ends = 0;
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    if (batch.get(i) == END) {
+                        batch.remove(i);
+                        ends++;
+                    }
+                }
+                if (ends > 0) {
+                    end = true;
+                    //leave the other threads their end marker
+                    for (int i = 1; i < ends; i++) {
+                        stage.input.put(END);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    write(stage, batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        private void write(Stage stage, List<Item> batch) {
+            long start = System.nanoTime();
+            int[][] counts;
+            try {
+                counts = jdbcTemplate.batchUpdate(UPDATE_ITEM, batch, batch.size(), (statement, item) -> {
+                    statement.setString(1, item.getName());
+                    statement.setString(2, item.getDescription());
+                    statement.setString(3, item.getStatus().name());
+                    statement.setString(4, item.getEmail());
+                    statement.setLong(5, item.getId());
+                    statement.setObject(6, item.getVersion());
+                });
+            } catch (DataAccessException e) {
+                stage.worked(start, 0);
+                batch.forEach(item -> fail(stage, item, e));
+                return;
+            }
+            List<Item> written = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Item item = batch.get(i);
+                if (counts[0][i] == 0) {
+                    fail(stage, item, new IllegalStateException("Item " + item.getId() + " was changed concurrently"));
+                    continue;
+                }
+                item.setVersion(item.getVersion() + 1);
+                item.setClaimedBy(null);
+                item.setLeaseExpiresAt(null);
+                written.add(item);
+                itemCache.invalidate(item.getId());
+                jsonCache.invalidate(item.getId());
+                searchIndex.index(item);
+            }
+            journal.upsertAll(written);
+            itemMetrics.processed(written.size());
+            persisted.add(written.size());
+            stage.worked(start, written.size());
+        }
+
+        private void fail(Stage stage, Item item, Exception error) {
+            log.debug("Item {} failed in pipeline stage {}", item.getId(), stage.definition.name(), error);
+            stage.failed.increment();
+            stage.definition.failed().increment();
+            failed.increment();
+            itemMetrics.failed();
+        }
+
+        /**
+         * Stops every thread of the run; the first error is what the run reports.
+         */
+        private void abort(Throwable error) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = error;
+                }
+            }
+            threads.forEach(Thread::interrupt);
+        }
+
+        private void joinUninterruptibly(Thread thread) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        ItemPipelineReport report() {
+            List<ItemPipelineStageStats> stats = runStages.stream().map(Stage::stats).toList();
+            return new ItemPipelineReport(
+                    ProcessingReport.of(persisted.sum(), failed.sum(), startNanos), stats);
+        }
+
+        /**
+         * A stage within this run.
+         */
+        private final class Stage {
+            private final StageDefinition definition;
+            //null for the fetch stage, which produces items rather than receiving them
+            private final BlockingQueue<Item> input;
+            private Stage next;
+            private final AtomicInteger running;
+            private final LongAdder processed = new LongAdder();
+            private final LongAdder failed = new LongAdder();
+            private final LongAdder busyNanos = new LongAdder();
+            private final AtomicInteger peakDepth = new AtomicInteger();
+            private volatile long endNanos;
+
+            Stage(StageDefinition definition, BlockingQueue<Item> input) {
+                this.definition = definition;
+                this.input = input;
+                this.running = new AtomicInteger(definition.parallelism());
+            }
+
+            Item take() throws InterruptedException {
+                peakDepth.accumulateAndGet(input.size(), Math::max);
+                return input.take();
+            }
+
+            void worked(long start, int items) {
+                busyNanos.add(System.nanoTime() - start);
+                processed.add(items);
+                definition.processed().add(items);
+            }
+
+            /**
+             * Called by each thread of the stage once its input is exhausted; the last one ends the next stage's input.
+             */
+            void finish() throws InterruptedException {
+                if (running.decrementAndGet() > 0) {
+                    return;
+                }
+                endNanos = System.nanoTime();
+                if (next != null) {
+                    for (int i = 0; i < next.definition.parallelism(); i++) {
+                        next.input.put(END);
+                    }
+                }
+            }
+
+            ItemPipelineStageStats stats() {
+                long elapsedNanos = (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+                double seconds = elapsedNanos / 1_000_000_000.0;
+                long items = processed.sum();
+                return new ItemPipelineStageStats(definition.name(), definition.parallelism(), items, failed.sum(),
+                        seconds > 0 ? items / seconds : 0.0, TimeUnit.NANOSECONDS.toMillis(busyNanos.sum()),
+                        input == null ? 0 : queueCapacity, peakDepth.get());
+            }
+
+            int queueDepth() {
+                return input == null ? 0 : input.size();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < stages.size(); i++) {
+            StageDefinition definition = stages.get(i);
+            int index = i;
+            FunctionCounter.builder("item.pipeline.stage.items", definition.processed(), LongAdder::sum)
+                    .description("Items passed on by a pipeline stage")
+                    .tags("stage", definition.name(), "result", "processed")
+                    .register(registry);
+            FunctionCounter.builder("item.pipeline.stage.items", definition.failed(), LongAdder::sum)
+                    .description("Items passed on by a pipeline stage")
+                    .tags("stage", definition.name(), "result", "failed")
+                    .register(registry);
+            if (index > 0) {
+                Gauge.builder("item.pipeline.queue.depth", this, pipeline -> pipeline.queueDepth(index))
+                        .description("Items waiting in the input queue of a pipeline stage, over all running runs")
+                        .tag("stage", definition.name())
+                        .register(registry);
+            }
+        }
+    }
+
+    private int queueDepth(int stage) {
+        return activeRuns.stream().mapToInt(run -> run.runStages.get(stage).queueDepth()).sum();
+    }
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Result of an {@link ItemPipeline} run.
+ * @param summary items persisted and failed over the whole run
+ * @param stages statistics of every stage, in pipeline order
+ */
+public record ItemPipelineReport(ProcessingReport summary, List<ItemPipelineStageStats> stages) {
+}
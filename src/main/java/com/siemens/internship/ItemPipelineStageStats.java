@@ -0,0 +1,17 @@
+package com.siemens.internship;
+
+/**
+ * What one stage of an {@link ItemPipeline} run achieved.
+ * @param name name of the stage
+ * @param parallelism number of threads the stage ran on
+ * @param processed number of items the stage passed on
+ * @param failed number of items that failed in the stage
+ * @param itemsPerSecond throughput of the stage while it was running
+ * @param busyMillis time the stage's threads spent working on items, summed over all threads;
+ *                   waiting for input or for room in the next queue is not included
+ * @param queueCapacity capacity of the stage's input queue, 0 for the fetch stage that has none
+ * @param peakQueueDepth highest number of items waiting in the input queue
+ */
+public record ItemPipelineStageStats(String name, int parallelism, long processed, long failed, double itemsPerSecond,
+                                     long busyMillis, int queueCapacity, int peakQueueDepth) {
+}
@@ -0,0 +1,368 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs item processing tasks on a configurable {@link ExecutorService}.
+ * <p>
+ * Every task first acquires a permit from a concurrency limiter, so no matter how many threads the
+ * underlying executor has (virtual threads are effectively unbounded), at most {@code maxConcurrency}
+ * tasks talk to the database at the same time. The limiter is meant to be sized to the share of the datasource
+ * pool reserved for processing.
+ * <p>
+ * The work queue is bounded too: once {@code queueCapacity} tasks are in flight, further submissions are rejected
+ * with a {@link RejectedExecutionException} instead of piling up in memory. Runs use {@link #submitWindowed}
+ * to stay well below that limit. Their results are handed to the listeners on a separate pool of delivery threads,
+ * which this executor owns and stops in {@link #close()} as well.
+ * <p>
+ * Deliberately not a {@link java.util.concurrent.Executor}, so it does not replace Spring Boot's
+ * auto-configured application task executor.
+ * <p>
+ * As a {@link MeterBinder} bean it publishes the {@code item.processing.executor.*} gauges:
+ * tasks in flight, tasks queued for a thread or permit, tasks running, and the concurrency limit.
+ */
+public class ItemProcessingExecutor implements AutoCloseable, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ItemProcessingExecutor.class);
+    //ends the delivery of a windowed run early
+    private static final Delivery STOP = new Delivery(null, null, null);
+
+    private final ExecutorService delegate;
+    //one thread per windowed run that is delivering results, reused across runs
+    private final ExecutorService deliveryExecutor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final Duration shutdownTimeout;
+    //submitted and not yet completed, whether queued or running
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ItemProcessingExecutor(ExecutorService delegate, int maxConcurrency, Duration shutdownTimeout) {
+        this(delegate, maxConcurrency, Integer.MAX_VALUE, shutdownTimeout);
+    }
+
+    public ItemProcessingExecutor(ExecutorService delegate, int maxConcurrency, int queueCapacity, Duration shutdownTimeout) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.delegate = delegate;
+        //a run occupies at least one slot of the queue, so there are never more runs delivering than its capacity
+        this.deliveryExecutor = new ThreadPoolExecutor(0, queueCapacity, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                deliveryThreadFactory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * Creates an executor for the given mode.
+     * @param mode the threading strategy
+     * @param threads pool size for {@link ProcessingExecutorMode#FIXED}, parallelism for {@link ProcessingExecutorMode#FORK_JOIN};
+     *                ignored for {@link ProcessingExecutorMode#VIRTUAL}
+     * @param maxConcurrency maximum number of tasks running at once, regardless of mode
+     * @param queueCapacity maximum number of tasks in flight, queued or running
+     * @param shutdownTimeout how long {@link #close()} waits for running tasks before interrupting them
+     * @throws IllegalStateException if virtual threads are requested on a runtime that does not support them
+     */
+    public static ItemProcessingExecutor create(ProcessingExecutorMode mode, int threads, int maxConcurrency,
+                                                int queueCapacity, Duration shutdownTimeout) {
+        ExecutorService delegate = switch (mode) {
+            case FIXED -> Executors.newFixedThreadPool(threads);
+            case FORK_JOIN -> new ForkJoinPool(threads);
+            case VIRTUAL -> newVirtualThreadPerTaskExecutor();
+        };
+        log.info("Item processing executor: mode={}, threads={}, maxConcurrency={}, queueCapacity={}",
+                mode, threads, maxConcurrency, queueCapacity);
+        return new ItemProcessingExecutor(delegate, maxConcurrency, queueCapacity, shutdownTimeout);
+    }
+
+    private static ThreadFactory deliveryThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "item-processing-delivery-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The project still targets Java 17, so the Java 21 factory method is resolved at runtime.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread mode requires a Java 21+ runtime, current is "
+                    + Runtime.version(), e);
+        }
+    }
+
+    /**
+     * Runs {@code task} asynchronously once a concurrency permit is available.
+     * @return a future completed with the task result, or exceptionally if the task fails
+     * @throws RejectedExecutionException if the queue is full or the executor was closed
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (inFlight.incrementAndGet() > queueCapacity) {
+            inFlight.decrementAndGet();
+            throw new RejectedExecutionException("Item processing queue is full");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a processing slot", e);
+                }
+                try {
+                    return task.get();
+                } finally {
+                    permits.release();
+                }
+            }, delegate).whenComplete((result, ex) -> inFlight.decrementAndGet());
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Processes {@code itemIds} with {@code task} and hands each result to {@code listener} the moment it completes.
+     * <p>
+     * At most {@code window} items are in flight at once: a new item is only submitted after the result of a
+     * previous one was delivered. Processing threads only put their result into a queue of the run, which holds at
+     * most {@code window} results; a delivery thread takes them from there, calls the listener and submits the next
+     * item. A slow listener therefore throttles the submission of this run, without holding any processing thread,
+     * and a run never occupies more than {@code window} slots of the queue.
+     * Cancelling the returned future stops submitting further items.
+     *
+     * @param window maximum number of items being processed or awaiting delivery at the same time, must be positive
+     * @param listener receives every processed item or failure, never concurrently and never on a processing thread
+     * @return a future completed with a {@link ProcessingReport} once every item was delivered, or exceptionally
+     *         if the listener fails, the queue rejects an item or the executor is closed
+     */
+    public CompletableFuture<ProcessingReport> submitWindowed(List<Long> itemIds, int window, Function<Long, Item> task,
+                                                              ItemProcessingListener listener) {
+        long start = System.nanoTime();
+        CompletableFuture<ProcessingReport> result = new CompletableFuture<>();
+        if (itemIds.isEmpty()) {
+            result.complete(ProcessingReport.of(0, start));
+            return result;
+        }
+
+        int inFlightLimit = Math.min(window, itemIds.size());
+        //room for every in-flight result plus the stop signal, so offering never blocks a processing thread
+        BlockingQueue<Delivery> completed = new ArrayBlockingQueue<>(inFlightLimit + 1);
+        AtomicInteger nextIndex = new AtomicInteger();
+        Runnable submitNext = () -> {
+            int index = nextIndex.getAndIncrement();
+            if (index >= itemIds.size() || result.isDone()) {
+                return;
+            }
+            Long id = itemIds.get(index);
+            try {
+                submit(() -> task.apply(id)).whenComplete((item, ex) -> completed.offer(new Delivery(id, item, ex)));
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        };
+        //wakes the delivering thread once the run is cancelled or a submission was rejected
+        result.whenComplete((report, ex) -> completed.offer(STOP));
+
+        try {
+            deliveryExecutor.execute(() -> deliver(itemIds.size(), completed, submitNext, listener, result, start));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        for (int i = 0; i < inFlightLimit; i++) {
+            submitNext.run();
+        }
+        return result;
+    }
+
+    /**
+     * Result of one item, waiting to be handed to the listener.
+     */
+    private record Delivery(Long itemId, Item item, Throwable error) {
+    }
+
+    /**
+     * Hands the results of a windowed run to its listener, submitting the next item after each one.
+     */
+    private static void deliver(int count, BlockingQueue<Delivery> completed, Runnable submitNext,
+                                ItemProcessingListener listener, CompletableFuture<ProcessingReport> result, long start) {
+        long processed = 0;
+        long failed = 0;
+        try {
+            for (int delivered = 0; delivered < count; delivered++) {
+                Delivery delivery = completed.take();
+                if (delivery == STOP) {
+                    return;
+                }
+                if (delivery.error() == null) {
+                    listener.onProcessed(delivery.item());
+                    processed++;
+                } else {
+                    Throwable error = delivery.error();
+                    listener.onFailed(delivery.itemId(), error instanceof CompletionException ? error.getCause() : error);
+                    failed++;
+                }
+                submitNext.run();
+            }
+            result.complete(ProcessingReport.of(processed, failed, start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        } catch (RuntimeException listenerFailure) {
+            result.completeExceptionally(listenerFailure);
+        }
+    }
+
+    /**
+     * Processes chunks of items one after another until {@code nextChunk} returns an empty list,
+     * each chunk with {@link #submitWindowed}.
+     * Cancelling the returned future stops the current chunk and no further chunk is requested.
+     *
+     * @param nextChunk supplies the IDs of the next chunk; called on the thread that delivered the previous chunk
+     * @return a future completed with a {@link ProcessingReport} over all chunks, or exceptionally if a chunk fails
+     *         or {@code nextChunk} throws
+     */
+    public CompletableFuture<ProcessingReport> submitChunked(Supplier<List<Long>> nextChunk, int window,
+                                                             Function<Long, Item> task, ItemProcessingListener listener) {
+        long start = System.nanoTime();
+        CompletableFuture<ProcessingReport> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<ProcessingReport>> currentChunk = new AtomicReference<>();
+        AtomicLong processed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Runnable submitNextChunk = new Runnable() {
+            @Override
+            public void run() {
+                List<Long> itemIds;
+                try {
+                    itemIds = nextChunk.get();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                if (itemIds.isEmpty()) {
+                    result.complete(ProcessingReport.of(processed.get(), failed.get(), start));
+                    return;
+                }
+                CompletableFuture<ProcessingReport> chunk = submitWindowed(itemIds, window, task, listener);
+                currentChunk.set(chunk);
+                chunk.whenComplete((report, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    } else if (!result.isDone()) {
+                        processed.addAndGet(report.processed());
+                        failed.addAndGet(report.failed());
+                        run();
+                    }
+                });
+            }
+        };
+        result.whenComplete((report, ex) -> {
+            CompletableFuture<ProcessingReport> chunk = currentChunk.get();
+            if (chunk != null) {
+                chunk.cancel(false);
+            }
+        });
+        submitNextChunk.run();
+        return result;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of tasks currently holding a concurrency permit
+     */
+    public int getActiveTasks() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return the number of submitted tasks that have not completed yet
+     */
+    public int getInFlightTasks() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of submitted tasks waiting for a thread or a concurrency permit
+     */
+    public int getQueuedTasks() {
+        return Math.max(0, getInFlightTasks() - getActiveTasks());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("item.processing.executor.inflight", this, ItemProcessingExecutor::getInFlightTasks)
+                .description("Submitted item processing tasks that have not completed")
+                .register(registry);
+        Gauge.builder("item.processing.executor.queued", this, ItemProcessingExecutor::getQueuedTasks)
+                .description("Item processing tasks waiting for a thread or a concurrency permit")
+                .register(registry);
+        Gauge.builder("item.processing.executor.active", this, ItemProcessingExecutor::getActiveTasks)
+                .description("Item processing tasks currently running")
+                .register(registry);
+        Gauge.builder("item.processing.executor.limit", this, ItemProcessingExecutor::getMaxConcurrency)
+                .description("Maximum number of item processing tasks running at once")
+                .register(registry);
+    }
+
+    /**
+     * Stops accepting tasks and waits up to the shutdown timeout for running ones, then interrupts the rest.
+     * Delivery threads are interrupted afterwards, so windowed runs still in progress complete exceptionally.
+     * Called by Spring when the application context closes.
+     */
+    @Override
+    public void close() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Item processing executor did not terminate within {}, interrupting tasks", shutdownTimeout);
+                delegate.shutdownNow();
+            }
+            deliveryExecutor.shutdownNow();
+            if (!deliveryExecutor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Item processing delivery threads did not terminate within {}", shutdownTimeout);
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            deliveryExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
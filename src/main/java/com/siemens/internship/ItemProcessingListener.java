@@ -0,0 +1,23 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Receives item processing results one by one, as soon as each item completes.
+ * <p>
+ * Calls are never concurrent and come from a thread of the run, not from a processing thread. A listener that
+ * blocks slows down its own run, since no new items are submitted while results are waiting to be delivered;
+ * a listener that throws aborts the run.
+ */
+public interface ItemProcessingListener {
+
+    void onProcessed(Item item);
+
+    void onFailed(Long itemId, Throwable error);
+
+    /**
+     * Called with the IDs of every chunk a run claims, before any of them is processed.
+     */
+    default void onClaimed(List<Long> itemIds) {
+    }
+}
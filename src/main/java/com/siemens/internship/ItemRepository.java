@@ -1,11 +1,148 @@
 package com.siemens.internship;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("SELECT id FROM Item")
     List<Long> findAllIds();
+
+    /**
+     * Returns the IDs of all items in the given status, in ascending order, using the status index.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.status = :status ORDER BY i.id")
+    List<Long> findIdsByStatus(@Param("status") ItemStatus status);
+
+    /**
+     * Keyset pagination over the IDs of items in the given status: returns the next IDs strictly greater than
+     * {@code afterId}, in ascending order. The page size is taken from {@code pageable}; its offset is expected to stay at 0.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.status = :status AND i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsByStatusAfter(@Param("status") ItemStatus status, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Counts items per status with an aggregate over the status index. Statuses without items are omitted.
+     */
+    @Query("SELECT i.status AS status, COUNT(i) AS count FROM Item i GROUP BY i.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Cheap fingerprint of the whole table: any insert, update or delete changes at least one of the aggregates,
+     * since IDs are never reused and every write increments the item's version.
+     */
+    @Query("SELECT COUNT(i) AS count, COALESCE(SUM(i.id), 0) AS idSum, COALESCE(SUM(i.version), 0) AS versionSum FROM Item i")
+    ItemsFingerprint fingerprint();
+
+    /**
+     * Keyset pagination over items: returns the next items with an ID strictly greater than {@code afterId}, ordered by ID.
+     */
+    @Query("SELECT i FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Item> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Streams all items ordered by ID, fetching rows from the JDBC cursor in batches instead of loading the whole table.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAll();
+
+    /**
+     * Returns the IDs greater than {@code afterId} of items in the given status that no node holds a valid lease on,
+     * in ascending order.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.status = :status AND i.id > :afterId "
+            + "AND (i.leaseExpiresAt IS NULL OR i.leaseExpiresAt < :now) ORDER BY i.id")
+    List<Long> findClaimableIds(@Param("status") ItemStatus status, @Param("afterId") Long afterId, @Param("now") Instant now,
+                                Pageable pageable);
+
+    /**
+     * Leases those of the given items to {@code owner} that are still in {@code status} and not leased by anyone else.
+     * The lease condition is part of the UPDATE, so of several nodes claiming the same row only one succeeds.
+     * Leases are invisible to clients, so the version is left unchanged.
+     * @return the number of rows claimed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Item i SET i.claimedBy = :owner, i.leaseExpiresAt = :until WHERE i.id IN :ids AND i.status = :status "
+            + "AND (i.leaseExpiresAt IS NULL OR i.leaseExpiresAt < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("status") ItemStatus status, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+    /**
+     * Returns those of the given IDs that are currently leased to {@code owner}, in ascending order.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.claimedBy = :owner AND i.id IN :ids ORDER BY i.id")
+    List<Long> findIdsClaimedBy(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the current version of each of the given items that exists
+     */
+    @Query("SELECT i.id AS id, i.version AS version FROM Item i WHERE i.id IN :ids")
+    List<ItemVersion> findVersions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gives up the leases {@code owner} still holds on items in {@code status}, making them claimable again.
+     * @return the number of leases released
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Item i SET i.claimedBy = NULL, i.leaseExpiresAt = NULL WHERE i.claimedBy = :owner AND i.status = :status")
+    int releaseClaims(@Param("owner") String owner, @Param("status") ItemStatus status);
+
+    /**
+     * Sets the status of all given items in a single UPDATE statement and clears their leases.
+     * @return the number of rows affected
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Item i SET i.status = :status, i.claimedBy = NULL, i.leaseExpiresAt = NULL, i.version = i.version + 1 "
+            + "WHERE i.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") ItemStatus status);
+
+    /**
+     * Sets the status of one item in a single UPDATE statement, without loading it first, and clears its lease.
+     * @return the number of rows affected, 0 if the item does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Item i SET i.status = :status, i.claimedBy = NULL, i.leaseExpiresAt = NULL, i.version = i.version + 1 "
+            + "WHERE i.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") ItemStatus status);
+
+    /**
+     * Sets the status of one item in a single UPDATE statement, without loading it first, and clears its lease,
+     * but only if the item still has the given version.
+     * @param version the version the status was decided on
+     * @return the number of rows affected, 0 if the item was changed or deleted since
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Item i SET i.status = :status, i.claimedBy = NULL, i.leaseExpiresAt = NULL, i.version = i.version + 1 "
+            + "WHERE i.id = :id AND i.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("status") ItemStatus status, @Param("version") Long version);
+
+    /**
+     * Applies a partial update in a single UPDATE statement: {@code null} arguments keep the current column value.
+     * @return the number of rows affected, 0 if the item does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Item i SET i.name = COALESCE(:name, i.name), i.description = COALESCE(:description, i.description), "
+            + "i.status = COALESCE(:status, i.status), i.email = COALESCE(:email, i.email), i.version = i.version + 1 "
+            + "WHERE i.id = :id")
+    int patch(@Param("id") Long id, @Param("name") String name, @Param("description") String description,
+              @Param("status") ItemStatus status, @Param("email") String email);
 }
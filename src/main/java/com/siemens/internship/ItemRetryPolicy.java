@@ -0,0 +1,69 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which item processing failures are worth retrying and how long to wait in between.
+ * <p>
+ * Transient failures are those the database reports as such (lock timeouts, deadlocks, lost or unavailable
+ * connections). They are retried up to {@code item.processing.retry.max-attempts} times in total, with an exponential
+ * backoff starting at {@code initial-backoff} and capped at {@code max-backoff}. Each wait is randomized between half
+ * and the full backoff, so items that failed together do not retry in lockstep. Every other failure is permanent.
+ */
+@Component
+public class ItemRetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public ItemRetryPolicy(@Value("${item.processing.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${item.processing.retry.initial-backoff:50ms}") Duration initialBackoff,
+                           @Value("${item.processing.retry.max-backoff:1s}") Duration maxBackoff) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return {@code true} if {@code error} or one of its causes marks a failure that may go away on its own
+     */
+    public boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param attempt the number of the attempt that just failed, starting at 1
+     * @return how long to wait before the next attempt
+     */
+    public Duration backoff(int attempt) {
+        long millis = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(Math.max(millis, 0), maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+}
@@ -0,0 +1,385 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over item names and descriptions, answering searches without scanning the table.
+ * <p>
+ * Text is split into lower-case tokens at every character that is not a letter or digit. Each token maps to a
+ * sorted {@code long[]} of the IDs of the items containing it, and tokens are kept in a sorted dictionary, so a prefix
+ * query is a range scan over the dictionary. A query is a list of terms that must all match (AND); a term ending in
+ * {@code *} matches every token starting with it.
+ * <p>
+ * The index is built from the database before the application accepts requests and is kept up to date by
+ * {@link ItemService} after each write. Updates carry the item version and older versions are ignored, so concurrent
+ * writers cannot leave a stale state indexed. Items written by other nodes sharing the database are only picked up
+ * by a {@link #rebuild()}. Reads share a read lock and never block each other.
+ */
+@Component
+//afterSingletonsInstantiated only reaches beans created at startup, so never initialize the index lazily
+@Lazy(false)
+public class ItemSearchIndex implements SmartInitializingSingleton, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    //rough HotSpot object sizes with compressed references, for stats()
+    private static final long TERM_OVERHEAD_BYTES = 40 + 40 + 32 + 16;
+    private static final long ITEM_OVERHEAD_BYTES = 32 + 16 + 24 + 2 * 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    //what each item is indexed under, to unindex it on update or delete
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+
+    private record IndexedItem(long version, String[] nameTerms, String[] descriptionTerms) {
+    }
+
+    //the first size IDs of a sorted array
+    private record Slice(long[] ids, int size) {
+    }
+
+    @Autowired
+    public ItemSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index content with the items currently stored, reading only their ID, version, name and description.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            items.clear();
+            jdbcTemplate.query("SELECT id, version, name, description FROM item", rs -> {
+                addLocked(rs.getLong(1), rs.getLong(2), tokenize(rs.getString(3)), tokenize(rs.getString(4)));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built in {} ms: {}", (System.nanoTime() - start) / 1_000_000, stats());
+    }
+
+    /**
+     * Indexes a stored item, replacing what was indexed for it before, unless a newer version is already indexed.
+     */
+    public void index(Item item) {
+        long version = item.getVersion() == null ? 0 : item.getVersion();
+        lock.writeLock().lock();
+        try {
+            IndexedItem indexed = items.get(item.getId());
+            if (indexed != null && indexed.version() > version) {
+                return;
+            }
+            removeLocked(item.getId());
+            addLocked(item.getId(), version, tokenize(item.getName()), tokenize(item.getDescription()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a partial update of an indexed item without reloading it: {@code null} fields keep their indexed terms.
+     * An item not indexed on this node is left to the next {@link #rebuild()}.
+     */
+    public void patch(Long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem indexed = items.get(id);
+            if (indexed == null) {
+                return;
+            }
+            List<String> nameTokens = name != null ? tokenize(name) : Arrays.asList(indexed.nameTerms());
+            List<String> descriptionTokens = description != null ? tokenize(description)
+                    : Arrays.asList(indexed.descriptionTerms());
+            removeLocked(id);
+            //the UPDATE incremented the version as well
+            addLocked(id, indexed.version() + 1, nameTokens, descriptionTokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the items matching every term of {@code query}, in ascending ID order.
+     * Only as many IDs as requested are collected, so the cost of a page depends little on the total number of hits.
+     * @param query whitespace-separated terms; a term ending in {@code *} is a prefix
+     * @param afterId only IDs greater than this are returned, for keyset pagination
+     * @param limit the maximum number of IDs to return
+     * @return the IDs of the matching items in ascending order
+     * @throws IllegalArgumentException if the query contains no term
+     */
+    public long[] search(String query, long afterId, int limit) {
+        List<String> exact = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String part : query.trim().split("\\s+")) {
+            List<String> tokens = tokenize(part);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            //"foo-ba*" is foo AND ba*: only the last token of a part is a prefix
+            boolean prefix = part.endsWith("*");
+            exact.addAll(prefix ? tokens.subList(0, tokens.size() - 1) : tokens);
+            if (prefix) {
+                prefixes.add(tokens.get(tokens.size() - 1));
+            }
+        }
+        if (exact.isEmpty() && prefixes.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain at least one term");
+        }
+        lock.readLock().lock();
+        try {
+            List<Slice> lists = new ArrayList<>();
+            for (String term : exact) {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    return new long[0];
+                }
+                lists.add(new Slice(postings.ids, postings.size));
+            }
+            for (String prefix : prefixes) {
+                Slice ids = union(terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values());
+                if (ids.size() == 0) {
+                    return new long[0];
+                }
+                lists.add(ids);
+            }
+            return intersect(lists, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the size of the index and an estimate of the heap it occupies
+     */
+    public ItemSearchStats stats() {
+        lock.readLock().lock();
+        try {
+            long postings = 0;
+            long bytes = 0;
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                postings += entry.getValue().size;
+                bytes += TERM_OVERHEAD_BYTES + entry.getKey().length() + 8L * entry.getValue().ids.length;
+            }
+            for (IndexedItem item : items.values()) {
+                bytes += ITEM_OVERHEAD_BYTES + 4L * (item.nameTerms().length + item.descriptionTerms().length);
+            }
+            return new ItemSearchStats(items.size(), terms.size(), postings, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("item.search.index.terms", this, index -> index.stats().terms())
+                .description("Distinct tokens in the item search index")
+                .register(registry);
+        Gauge.builder("item.search.index.bytes", this, index -> index.stats().estimatedBytes())
+                .description("Estimated heap used by the item search index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Splits text into lower-case tokens of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private void addLocked(long id, long version, List<String> nameTokens, List<String> descriptionTokens) {
+        items.put(id, new IndexedItem(version, addTerms(id, nameTokens), addTerms(id, descriptionTokens)));
+    }
+
+    /**
+     * Adds {@code id} to the postings of each distinct token.
+     * @return the distinct tokens, as the dictionary's own strings rather than a copy per item
+     */
+    private String[] addTerms(long id, List<String> tokens) {
+        TreeSet<String> distinct = new TreeSet<>(tokens);
+        String[] itemTerms = new String[distinct.size()];
+        int i = 0;
+        for (String token : distinct) {
+            Postings postings = terms.computeIfAbsent(token, Postings::new);
+            postings.add(id);
+            itemTerms[i++] = postings.term;
+        }
+        return itemTerms;
+    }
+
+    private void removeLocked(Long id) {
+        IndexedItem indexed = items.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        removeTerms(id, indexed.nameTerms());
+        removeTerms(id, indexed.descriptionTerms());
+    }
+
+    private void removeTerms(Long id, String[] itemTerms) {
+        for (String term : itemTerms) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static Slice union(Collection<Postings> postingsLists) {
+        if (postingsLists.size() == 1) {
+            Postings postings = postingsLists.iterator().next();
+            return new Slice(postings.ids, postings.size);
+        }
+        int total = 0;
+        for (Postings postings : postingsLists) {
+            total += postings.size;
+        }
+        long[] ids = new long[total];
+        int length = 0;
+        for (Postings postings : postingsLists) {
+            System.arraycopy(postings.ids, 0, ids, length, postings.size);
+            length += postings.size;
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return new Slice(ids, distinct);
+    }
+
+    /**
+     * Walks the shortest list from {@code afterId} on and keeps the IDs found in all other lists, each looked up with a
+     * binary search that starts behind the previous match, until {@code limit} IDs are collected.
+     */
+    private static long[] intersect(List<Slice> lists, long afterId, int limit) {
+        lists.sort(Comparator.comparingInt(Slice::size));
+        int[] from = new int[lists.size()];
+        for (int i = 0; i < lists.size(); i++) {
+            Slice list = lists.get(i);
+            int index = Arrays.binarySearch(list.ids(), 0, list.size(), afterId);
+            from[i] = index >= 0 ? index + 1 : -index - 1;
+        }
+        Slice smallest = lists.get(0);
+        long[] result = new long[Math.min(limit, smallest.size() - from[0])];
+        int length = 0;
+        candidates:
+        for (int c = from[0]; c < smallest.size() && length < result.length; c++) {
+            long id = smallest.ids()[c];
+            for (int i = 1; i < lists.size(); i++) {
+                Slice list = lists.get(i);
+                int index = Arrays.binarySearch(list.ids(), from[i], list.size(), id);
+                if (index < 0) {
+                    from[i] = -index - 1;
+                    if (from[i] >= list.size()) {
+                        break candidates;
+                    }
+                    continue candidates;
+                }
+                from[i] = index + 1;
+            }
+            result[length++] = id;
+        }
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Sorted, growable list of the IDs of the items containing one term. IDs are assigned in ascending order,
+     * so adding a new item is an append.
+     */
+    private static final class Postings {
+        private final String term;
+        private long[] ids = new long[2];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            if (size > 0 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            return true;
+        }
+    }
+}
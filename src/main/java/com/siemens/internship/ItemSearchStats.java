@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+/**
+ * Size of the item search index.
+ * @param items number of indexed items
+ * @param terms number of distinct tokens
+ * @param postings total number of item IDs over all tokens
+ * @param estimatedBytes approximate heap occupied by the index
+ */
+public record ItemSearchStats(long items, long terms, long postings, long estimatedBytes) {
+}
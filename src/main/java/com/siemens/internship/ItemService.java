@@ -1,105 +1,406 @@
 package com.siemens.internship;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 @Service
 public class ItemService {
+    private static final Logger log = LoggerFactory.getLogger(ItemService.class);
+
     @Autowired
     private ItemRepository itemRepository;
-    private static final ExecutorService executor = Executors.newFixedThreadPool(10);
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private ItemMetrics itemMetrics;
+    @Autowired
+    private ProcessingAdmission processingAdmission;
+    @Autowired
+    private ItemStatusBuffer statusBuffer;
+    @Autowired
+    private ProcessingRunService runService;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemJournal journal;
+    @Autowired
+    private ItemJsonCache jsonCache;
+    @Autowired
+    private ItemPipeline pipeline;
 
-    //modified processedItems and processedCount to be thread safe
-    private final Queue<Item> processedItems = new ConcurrentLinkedQueue<>();
-    private final AtomicInteger processedCount = new AtomicInteger(0);
+    //simulated per-item work in processItem; 0 disables it
+    @Value("${item.processing.delay:100ms}")
+    private Duration processingDelay = Duration.ofMillis(100);
+    //items in flight per processItemsAsync run
+    @Value("${item.processing.window:64}")
+    private int submissionWindow = 64;
 
 
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
 
+    /**
+     * Returns aggregates that change with any write to the item table, without loading any item.
+     */
+    public ItemsFingerprint fingerprint() {
+        return itemRepository.fingerprint();
+    }
+
+    /**
+     * Returns one page of items using keyset pagination on the ID.
+     * @param cursor the {@link ItemPage#nextCursor()} of the previous page, or {@code null} for the first page
+     * @param size the maximum number of items in the page
+     * @return the page, whose {@code nextCursor} is {@code null} once the end of the table is reached
+     */
+    public ItemPage findPage(Long cursor, int size) {
+        List<Item> items = itemRepository.findPageAfter(cursor == null ? Long.MIN_VALUE : cursor, PageRequest.of(0, size));
+        Long nextCursor = items.size() == size ? items.get(items.size() - 1).getId() : null;
+        return new ItemPage(items, nextCursor);
+    }
+
+    /**
+     * Streams every item to {@code consumer} in ID order.
+     * <p>
+     * Rows are read from a database cursor and each item is detached from the persistence context
+     * once consumed, so memory usage stays flat regardless of table size.
+     *
+     * @param consumer receives each item as it is read
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Item> consumer) {
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    /**
+     * Looks up an item through the {@link ItemCache}, loading it from the database on a miss.
+     * A status change still waiting in the {@link ItemStatusBuffer} is already reflected.
+     * The returned item may be shared with other callers and must not be modified.
+     */
     public Optional<Item> findById(Long id) {
-        return itemRepository.findById(id);
+        return itemCache.get(id, itemRepository::findById).map(statusBuffer::overlay);
     }
 
     public Item save(Item item) {
-        return itemRepository.save(item);
+        Long id = item.getId();
+        Item saved;
+        try {
+            saved = itemRepository.save(item);
+            id = saved.getId();
+        } finally {
+            //also when the save fails, e.g. on a concurrent change, so no cached copy outlives the failed attempt
+            if (id != null) {
+                itemCache.invalidate(id);
+                jsonCache.invalidate(id);
+            }
+        }
+        searchIndex.index(saved);
+        journal.upsert(saved);
+        return saved;
+    }
+
+    /**
+     * Inserts or updates the given items in one transaction, using JDBC batching.
+     */
+    public List<Item> saveAll(List<Item> items) {
+        List<Item> saved = itemRepository.saveAll(items);
+        saved.forEach(item -> {
+            itemCache.invalidate(item.getId());
+            jsonCache.invalidate(item.getId());
+            searchIndex.index(item);
+        });
+        journal.upsertAll(saved);
+        return saved;
+    }
+
+    /**
+     * Finds the items whose name or description contain every term of {@code query}, using the {@link ItemSearchIndex}.
+     * @param query whitespace-separated terms; a term ending in {@code *} matches every word starting with it
+     * @param cursor the {@link ItemPage#nextCursor()} of the previous page, or {@code null} for the first page
+     * @param size the maximum number of items in the page
+     * @return the matching items ordered by ID; {@code nextCursor} is {@code null} on the last page
+     * @throws IllegalArgumentException if the query contains no term
+     */
+    public ItemPage search(String query, Long cursor, int size) {
+        //one ID more than requested tells whether another page follows
+        long[] ids = searchIndex.search(query, cursor == null ? Long.MIN_VALUE : cursor, size + 1);
+        int count = Math.min(ids.length, size);
+        List<Long> pageIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pageIds.add(ids[i]);
+        }
+        Map<Long, Item> loaded = new HashMap<>();
+        itemRepository.findAllById(pageIds).forEach(item -> loaded.put(item.getId(), item));
+        //items deleted since the lookup are skipped
+        List<Item> items = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .map(statusBuffer::overlay)
+                .toList();
+        return new ItemPage(items, ids.length > size ? pageIds.get(size - 1) : null);
+    }
+
+    public ItemSearchStats searchStats() {
+        return searchIndex.stats();
+    }
+
+    /**
+     * Applies a partial update with a single UPDATE statement instead of a read-modify-write cycle.
+     * A patch that changes content without setting a status marks the item as pending again.
+     *
+     * @param id the ID of the item to update
+     * @param patch the fields to change
+     * @return {@code true} if the item exists and was updated, {@code false} if no item has this ID
+     * @throws IllegalArgumentException if the patch contains an invalid email
+     */
+    public boolean patch(Long id, ItemPatch patch) {
+        if (patch.email() != null) {
+            Item.checkEmail(patch.email());
+        }
+        ItemStatus status = patch.status() == null && patch.changesContent() ? ItemStatus.NEW : patch.status();
+        int updated = itemRepository.patch(id, patch.name(), patch.description(), status, patch.email());
+        itemCache.invalidate(id);
+        jsonCache.invalidate(id);
+        if (updated > 0) {
+            searchIndex.patch(id, patch.name(), patch.description());
+            journal.updated(id);
+        }
+        return updated > 0;
     }
 
     public void deleteById(Long id) {
         itemRepository.deleteById(id);
+        itemCache.invalidate(id);
+        jsonCache.invalidate(id);
+        searchIndex.remove(id);
+        journal.deleted(id);
+    }
+
+    /**
+     * Returns the IDs of items that still need processing: new items and items changed since their last processing.
+     */
+    public List<Long> findPendingIds() {
+        return itemRepository.findIdsByStatus(ItemStatus.NEW);
+    }
+
+    /**
+     * Counts items per status; statuses without items are reported with a count of 0.
+     */
+    public Map<ItemStatus, Long> countByStatus() {
+        Map<ItemStatus, Long> counts = new EnumMap<>(ItemStatus.class);
+        for (ItemStatus status : ItemStatus.values()) {
+            counts.put(status, 0L);
+        }
+        itemRepository.countByStatus().forEach(count -> counts.put(count.getStatus(), count.getCount()));
+        return counts;
+    }
+
+    public ItemCacheStats cacheStats() {
+        return itemCache.stats();
     }
 
     /**
      * Processes a single item by its ID.
      * <p>
-     * This method simulates processing delay, retrieves the item from the database,
-     * updates its status to "PROCESSED", saves the updated item, and returns it.
+     * This method retrieves the item from the database, simulates processing delay ({@code item.processing.delay}),
+     * sets its status to {@link ItemStatus#PROCESSED} with a single UPDATE statement, and returns it.
+     * With write-behind enabled, the status change is handed to the {@link ItemStatusBuffer} instead.
+     * Each of these phases is timed in {@link ItemMetrics}.
      * Throws an exception if the item is not found or the thread is interrupted.
      *
      * @param itemId the ID of the item to process
-     * @return the processed and saved {@link Item}
+     * @return the processed {@link Item}
+     * @throws OptimisticLockingFailureException if the item was changed or deleted during processing
      * @throws RuntimeException if the item is not found or thread is interrupted
      */
     public Item processItem(Long itemId) {
         try{
-            Thread.sleep(100);
-            return itemRepository.findById(itemId).map(item ->
-            {item.setStatus("PROCESSED");
-            return itemRepository.save(item);
-            }).orElseThrow(() -> new RuntimeException("Item not found"));
+            long phaseStart = System.nanoTime();
+            Item item = itemRepository.findById(itemId).orElseThrow(() -> new RuntimeException("Item not found"));
+            phaseStart = itemMetrics.recordPhase(ItemMetrics.Phase.FETCH, phaseStart);
+
+            Thread.sleep(processingDelay.toMillis());
+            item.setStatus(ItemStatus.PROCESSED);
+            phaseStart = itemMetrics.recordPhase(ItemMetrics.Phase.TRANSFORM, phaseStart);
+
+            if (statusBuffer.isEnabled()) {
+                statusBuffer.record(itemId, ItemStatus.PROCESSED, item.getVersion());
+            } else {
+                //status-only transition: no merge, so no second SELECT before the UPDATE;
+                //guarded by the version, so a write during the delay is not marked processed unseen
+                if (itemRepository.updateStatus(itemId, ItemStatus.PROCESSED, item.getVersion()) == 0) {
+                    throw new OptimisticLockingFailureException("Item " + itemId + " was changed concurrently");
+                }
+                item.setVersion(item.getVersion() + 1);
+                itemCache.invalidate(itemId);
+            }
+            itemMetrics.recordPhase(ItemMetrics.Phase.SAVE, phaseStart);
+            itemMetrics.processed(1);
+            return item;
 
         } catch (InterruptedException e) {
+            //failures are counted once per item by the ProcessingRunService, not once per attempt
             Thread.currentThread().interrupt();
             throw new RuntimeException("Interrupted while processing Item " + itemId);
         }
     }
 
     /**
-     * Asynchronously processes all items in the database.
+     * Asynchronously processes all pending items in the database.
      * <p>
-     * This method retrieves all item IDs, launches a separate async task to
-     * process each item, waits for all tasks to complete, then collects and
-     * returns a list of all successfully processed items.
-     * All shared state (such as the processed item list and count) is safely updated.
+     * This method starts a checkpointed {@link ProcessingRun} that claims the items in status {@link ItemStatus#NEW}
+     * through the {@link ItemLeaseManager} and processes each of them on the processing executor, waits for all tasks
+     * to complete, then returns a list of all successfully processed items. With several nodes, each node returns only
+     * the items it processed itself. Items that fail do not fail the run: they are retried or dead-lettered by the
+     * {@link ProcessingRunService}, and the run can be resumed if any of them were left pending.
+     * At most {@code item.processing.window} items are submitted at a time, so even a large backlog never occupies
+     * more than that share of the bounded executor queue.
+     * Results are collected per call, so consecutive runs neither accumulate memory nor return items of earlier runs.
      *
-     * @return a {@link CompletableFuture} containing the list of all processed {@link Item} objects
-     * @throws RuntimeException if any task fails during processing
+     * @return a {@link CompletableFuture} containing the list of all processed {@link Item} objects,
+     *         completed exceptionally with a {@link ProcessingRejectedException} if the system is saturated,
+     *         or with the failure that stopped the run
      */
     @Async
     public CompletableFuture<List<Item>> processItemsAsync() {
+        return processingAdmission.submit(() -> {
+            List<Item> processedItems = new ArrayList<>();
+            //listener calls are never concurrent, so a plain list is safe here
+            ItemProcessingListener collector = new ItemProcessingListener() {
+                @Override
+                public void onProcessed(Item item) {
+                    processedItems.add(item);
+                }
 
-        List<Long> itemIds = itemRepository.findAllIds();
-
-        //launch one async task per item using supplyAsync to ensure each task is awaited and collected into list
-        List<CompletableFuture<Item>> futures = itemIds.stream().map(id->
-                CompletableFuture.supplyAsync(() -> processItem(id), executor)).
-                toList();
-
-        //use allOf to ensure we wait for all item-processing futures to complete
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v-> {
-           synchronized (this) {
-               futures.forEach(f->{
-                   try {
-                       Item item = f.join();
-                       processedItems.add(item);
-                       processedCount.incrementAndGet();
-                   } catch (Exception e) {
-                       throw new RuntimeException(e);
-                   }
-               });
-               return List.copyOf(processedItems);
-           }
+                @Override
+                public void onFailed(Long itemId, Throwable error) {
+                    log.debug("Processing item {} failed", itemId, error);
+                }
+            };
+            return startRun(submissionWindow, collector).handle((report, ex) -> {
+                Throwable failure = ex instanceof CompletionException ? ex.getCause() : ex;
+                //a full queue means the executor is saturated: tell the caller to back off rather than fail
+                if (failure instanceof RejectedExecutionException) {
+                    throw processingAdmission.rejection("Item processing queue is full", HttpStatus.SERVICE_UNAVAILABLE);
+                }
+                if (failure != null) {
+                    throw new CompletionException(failure);
+                }
+                log.info("Per-item processing finished: {}", report);
+                return processedItems;
+            });
         });
     }
+
+    /**
+     * Processes all pending items and hands each result to {@code listener} the moment it completes.
+     * Items are claimed through the {@link ItemLeaseManager}, so other nodes' runs are not repeated, and the run is
+     * checkpointed like every {@link ProcessingRun}.
+     * <p>
+     * At most {@code window} items are in flight at once: a new item is only submitted after the result of a
+     * previous one was delivered. A slow listener therefore throttles processing instead of letting results pile up.
+     * Cancelling the returned future stops submitting further items.
+     *
+     * @param window maximum number of items being processed or awaiting delivery at the same time
+     * @param listener receives every processed item or failure, never concurrently
+     * @return a future completed with a {@link ProcessingReport} once every item was delivered,
+     *         or exceptionally if the listener fails or the processing queue is full
+     * @throws IllegalArgumentException if {@code window} is not positive
+     * @throws ProcessingRejectedException if the maximum number of processing runs is in progress
+     */
+    public CompletableFuture<ProcessingReport> processItemsStreaming(int window, ItemProcessingListener listener) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        return processingAdmission.submit(() -> startRun(window, listener));
+    }
+
+    /**
+     * Starts a new checkpointed run over the pending items this node manages to claim, chunk by chunk, so that several
+     * nodes running at the same time split the work instead of each processing every item.
+     */
+    private CompletableFuture<ProcessingReport> startRun(int window, ItemProcessingListener listener) {
+        return runService.execute(runService.begin(), window, this::processItem, listener);
+    }
+
+    /**
+     * Processes all pending items set-based, in keyset-paginated chunks.
+     * <p>
+     * Instead of three round trips and one future per item, each chunk costs two statements:
+     * one keyset query that fetches the next {@code chunkSize} pending IDs and one bulk UPDATE that marks them
+     * {@link ItemStatus#PROCESSED}.
+     * The per-item simulated delay is not applied here, since no per-item work is performed.
+     *
+     * @param chunkSize the maximum number of items handled per chunk, must be positive
+     * @return a {@link ProcessingReport} with the number of processed items and the achieved items/sec
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     * @throws ProcessingRejectedException if the maximum number of processing runs is in progress
+     */
+    public ProcessingReport processItemsInChunks(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        return processingAdmission.run(() -> processPendingInChunks(chunkSize));
+    }
+
+    private ProcessingReport processPendingInChunks(int chunkSize) {
+        long start = System.nanoTime();
+        long processed = 0;
+        Long lastId = Long.MIN_VALUE;
+        List<Long> ids;
+        while (!(ids = itemRepository.findIdsByStatusAfter(ItemStatus.NEW, lastId, PageRequest.of(0, chunkSize))).isEmpty()) {
+            int updated = itemRepository.updateStatusByIds(ids, ItemStatus.PROCESSED);
+            itemCache.invalidateAll(ids);
+            itemMetrics.processed(updated);
+            processed += updated;
+            lastId = ids.get(ids.size() - 1);
+        }
+        ProcessingReport report = ProcessingReport.of(processed, start);
+        log.info("Chunked processing finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Processes all pending items through the staged {@link ItemPipeline}, where fetching, transforming, the simulated
+     * I/O and persisting each run on their own threads, connected by bounded queues.
+     *
+     * @return an {@link ItemPipelineReport} with the overall result and the statistics of every stage
+     * @throws ProcessingRejectedException if the maximum number of processing runs is in progress
+     */
+    public ItemPipelineReport processItemsInPipeline() {
+        return processingAdmission.run(pipeline::run);
+    }
+
     /**
      * There were a few problems with the original implementation that prevented the program from working correctly:
      * First, processedItems and processedCount were simple array and int variables, which are not thread safe.
@@ -0,0 +1,60 @@
+package com.siemens.internship;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional warmup for the fast-startup mode, enabled with {@code item.startup.warmup}.
+ * <p>
+ * With lazy initialization, nothing on the JPA read path runs before the first request. Once the application is
+ * ready, this resolves the metamodel of {@link Item} only and runs the criteria query behind
+ * {@code GET /api/items} for a single row, so the first request finds that path loaded. The repositories and their
+ * other queries are still created and validated when first used.
+ */
+@Component
+public class ItemStartupWarmup {
+    private static final Logger log = LoggerFactory.getLogger(ItemStartupWarmup.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+
+    @Autowired
+    public ItemStartupWarmup(EntityManagerFactory entityManagerFactory,
+                             @Value("${item.startup.warmup:false}") boolean enabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Runs on the main thread while the web server already accepts requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        EntityType<Item> type = entityManagerFactory.getMetamodel().entity(Item.class);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            CriteriaQuery<Item> query = entityManager.getCriteriaBuilder().createQuery(Item.class);
+            query.select(query.from(type));
+            entityManager.createQuery(query).setMaxResults(1).getResultList();
+        } finally {
+            entityManager.close();
+        }
+        log.info("Warmed up the JPA metamodel of {} in {} ms", type.getName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship;
+
+/**
+ * Processing state of an {@link Item}.
+ */
+public enum ItemStatus {
+    /** Created or changed since it was last processed. */
+    NEW,
+    /** Processed and unchanged since. */
+    PROCESSED,
+    /** Processing failed permanently, see its {@link ItemDeadLetter}; changing the item makes it pending again. */
+    FAILED
+}
@@ -0,0 +1,185 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional write-behind stage for item status changes, enabled with {@code item.processing.write-behind.enabled}.
+ * <p>
+ * Instead of one UPDATE transaction per processed item, status changes are collected in a concurrent buffer, where
+ * repeated changes of the same item coalesce into the latest one, and written as JDBC batches once
+ * {@code item.processing.write-behind.max-batch} changes are pending or every {@code flush-interval}.
+ * The buffer is flushed when the application shuts down; changes recorded after that are written through directly.
+ * <p>
+ * Each change only applies to the item version it was made on, so a buffered change never overwrites a later write
+ * of the same item. Until it is flushed, {@link #overlay(Item)} lets readers see the change (read-your-writes).
+ */
+@Component
+public class ItemStatusBuffer implements AutoCloseable, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ItemStatusBuffer.class);
+
+    private static final String UPDATE_STATUS = "UPDATE item SET status = ?, claimed_by = NULL, lease_expires_at = NULL, "
+            + "version = version + 1 WHERE id = ? AND version = ?";
+
+    private record PendingStatus(ItemStatus status, Long version) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemCache itemCache;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final Map<Long, PendingStatus> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean closed;
+
+    @Autowired
+    public ItemStatusBuffer(JdbcTemplate jdbcTemplate, ItemCache itemCache,
+                            @Value("${item.processing.write-behind.enabled:false}") boolean enabled,
+                            @Value("${item.processing.write-behind.max-batch:500}") int maxBatch,
+                            @Value("${item.processing.write-behind.flush-interval:200ms}") Duration flushInterval) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Max batch must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.itemCache = itemCache;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        if (enabled) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-status-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a status change of an item, replacing any change of the same item not yet flushed.
+     * When the buffer is disabled or already closed, the change is written immediately.
+     * @param version the version of the item the change was made on; the change is dropped if the item changed since
+     */
+    public void record(Long id, ItemStatus status, Long version) {
+        if (!enabled || closed) {
+            write(List.of(Map.entry(id, new PendingStatus(status, version))));
+            return;
+        }
+        pending.put(id, new PendingStatus(status, version));
+        if (pending.size() >= maxBatch && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * @return {@code item} itself, or a copy carrying its buffered status if a change of this version is still pending
+     */
+    public Item overlay(Item item) {
+        PendingStatus change = pending.get(item.getId());
+        if (change == null || change.status() == item.getStatus() || !Objects.equals(change.version(), item.getVersion())) {
+            return item;
+        }
+        Item copy = new Item(item.getId(), item.getName(), item.getDescription(), change.status(), item.getEmail());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+
+    /**
+     * Writes every buffered change to the database, in batches of at most {@code max-batch} statements.
+     * Changes stay buffered, and are retried by the next flush, if writing them fails.
+     * @return the number of items updated; changes superseded by a later write of the item are not counted
+     */
+    public synchronized int flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Long, PendingStatus>> changes = new ArrayList<>(pending.size());
+        pending.forEach((id, change) -> changes.add(Map.entry(id, change)));
+        int updated = 0;
+        for (int from = 0; from < changes.size(); from += maxBatch) {
+            updated += write(changes.subList(from, Math.min(from + maxBatch, changes.size())));
+        }
+        return updated;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private int write(List<Map.Entry<Long, PendingStatus>> changes) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS, changes, changes.size(), (statement, change) -> {
+            statement.setString(1, change.getValue().status().name());
+            statement.setLong(2, change.getKey());
+            statement.setObject(3, change.getValue().version());
+        });
+        List<Long> ids = new ArrayList<>(changes.size());
+        int updated = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            Map.Entry<Long, PendingStatus> change = changes.get(i);
+            //keep a newer change of the same item that arrived while this one was written
+            pending.remove(change.getKey(), change.getValue());
+            ids.add(change.getKey());
+            updated += Math.max(0, counts[0][i]);
+        }
+        itemCache.invalidateAll(ids);
+        return updated;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} buffered item status changes, retrying later", pending.size(), e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("item.processing.buffer.pending", this, ItemStatusBuffer::size)
+                .description("Item status changes buffered and not yet written")
+                .register(registry);
+    }
+
+    /**
+     * Stops the periodic flush and writes everything still buffered. Called by Spring when the context closes.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+}
@@ -0,0 +1,35 @@
+package com.siemens.internship;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * An additional transform stage of the {@link ItemPipeline}, registered by declaring a bean implementing this interface.
+ * <p>
+ * Custom stages run after the built-in transform has marked the item {@link ItemStatus#PROCESSED} and before the
+ * enrich stage, ordered by {@link org.springframework.core.annotation.Order @Order}. Each stage has its own input
+ * queue and {@link #getParallelism()} worker threads, so it must be thread-safe if it runs on more than one.
+ * Changes to the name, description and email of the item are persisted together with its status.
+ * An exception fails only the item at hand, which stays pending for a later run.
+ */
+public interface ItemTransformStage {
+
+    /**
+     * @param item the item, owned by the calling thread until it is returned
+     * @return the transformed item, usually {@code item} itself; must not be {@code null}
+     */
+    Item transform(Item item);
+
+    /**
+     * @return the name of the stage in the pipeline statistics and meters, unique within the pipeline
+     */
+    default String getName() {
+        return ClassUtils.getUserClass(this).getSimpleName();
+    }
+
+    /**
+     * @return the number of threads running this stage
+     */
+    default int getParallelism() {
+        return 1;
+    }
+}
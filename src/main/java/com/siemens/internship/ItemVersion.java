@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+/**
+ * Projection of the version of one item.
+ */
+public interface ItemVersion {
+
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship;
+
+/**
+ * Projection of aggregates that change whenever any item is created, updated or deleted.
+ */
+public interface ItemsFingerprint {
+
+    long getCount();
+
+    long getIdSum();
+
+    long getVersionSum();
+}
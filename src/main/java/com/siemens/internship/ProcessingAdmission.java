@@ -0,0 +1,85 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many processing runs execute at the same time.
+ * <p>
+ * A run that would exceed {@code item.processing.admission.max-runs} is rejected immediately with a
+ * {@link ProcessingRejectedException} instead of queueing behind the others, so callers get a fast answer
+ * and the processing executor never holds the work of more than that many runs.
+ */
+@Component
+public class ProcessingAdmission {
+
+    private final Semaphore runs;
+    private final int maxRuns;
+    private final Duration retryAfter;
+
+    @Autowired
+    public ProcessingAdmission(@Value("${item.processing.admission.max-runs:2}") int maxRuns,
+                               @Value("${item.processing.admission.retry-after:5s}") Duration retryAfter) {
+        if (maxRuns <= 0) {
+            throw new IllegalArgumentException("Max runs must be positive");
+        }
+        this.runs = new Semaphore(maxRuns);
+        this.maxRuns = maxRuns;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Starts an asynchronous run if a slot is free; the slot is released when the returned future completes.
+     * The run's own future is returned, so cancelling it still reaches the run.
+     * @param run starts the run and returns its completion
+     * @throws ProcessingRejectedException with HTTP 429 if the maximum number of runs is in progress
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> run) {
+        acquire();
+        try {
+            CompletableFuture<T> future = run.get();
+            future.whenComplete((result, ex) -> runs.release());
+            return future;
+        } catch (RuntimeException e) {
+            runs.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Executes a synchronous run if a slot is free.
+     * @throws ProcessingRejectedException with HTTP 429 if the maximum number of runs is in progress
+     */
+    public <T> T run(Supplier<T> run) {
+        acquire();
+        try {
+            return run.get();
+        } finally {
+            runs.release();
+        }
+    }
+
+    /**
+     * @return an exception telling the caller to come back later because {@code reason}
+     */
+    public ProcessingRejectedException rejection(String reason, HttpStatus status) {
+        return new ProcessingRejectedException(reason, status, retryAfter);
+    }
+
+    public int getActiveRuns() {
+        return maxRuns - runs.availablePermits();
+    }
+
+    private void acquire() {
+        if (!runs.tryAcquire()) {
+            throw rejection("Too many processing runs in progress", HttpStatus.TOO_MANY_REQUESTS);
+        }
+    }
+}
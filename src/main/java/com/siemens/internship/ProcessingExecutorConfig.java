@@ -0,0 +1,30 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ProcessingExecutorConfig {
+
+    /**
+     * Executor used for item processing; shut down gracefully when the context closes.
+     * Unless {@code item.processing.executor.max-concurrency} is set, the concurrency limit is
+     * {@code item.processing.executor.connection-share} of the Hikari pool, so processing can never take
+     * every JDBC connection and CRUD requests keep the rest.
+     */
+    @Bean
+    public ItemProcessingExecutor itemProcessingExecutor(
+            @Value("${item.processing.executor.mode:fixed}") ProcessingExecutorMode mode,
+            @Value("${item.processing.executor.threads:10}") int threads,
+            @Value("${item.processing.executor.max-concurrency:0}") int maxConcurrency,
+            @Value("${item.processing.executor.connection-share:0.5}") double connectionShare,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${item.processing.executor.queue-capacity:1000}") int queueCapacity,
+            @Value("${item.processing.executor.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        int limit = maxConcurrency > 0 ? maxConcurrency : Math.max(1, (int) (poolSize * connectionShare));
+        return ItemProcessingExecutor.create(mode, threads, limit, queueCapacity, shutdownTimeout);
+    }
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship;
+
+/**
+ * Threading strategies available for item processing, selected with {@code item.processing.executor.mode}.
+ */
+public enum ProcessingExecutorMode {
+    /** Bounded pool of platform threads. */
+    FIXED,
+    /** Work-stealing {@link java.util.concurrent.ForkJoinPool}. */
+    FORK_JOIN,
+    /** One virtual thread per task (requires a Java 21+ runtime). */
+    VIRTUAL
+}
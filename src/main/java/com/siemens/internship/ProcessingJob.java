@@ -0,0 +1,147 @@
+package com.siemens.internship;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live state of one background processing job.
+ * <p>
+ * Only counters are kept, never the processed items themselves, so a job's memory footprint does not
+ * depend on the number of items. The run's future is released as soon as the job finishes.
+ */
+public class ProcessingJob {
+
+    public enum State { RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile long elapsedNanos = -1;
+    private volatile CompletableFuture<?> run;
+    private volatile Long runId;
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return why the job failed, or {@code null} unless it is {@link State#FAILED}
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * @return the ID of the {@link ProcessingRun} the job executes, {@code null} until it started
+     */
+    public Long getRunId() {
+        return runId;
+    }
+
+    void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    void addTotal(long items) {
+        total.addAndGet(items);
+    }
+
+    /**
+     * @param run the run processing this job's items, cancelled together with the job
+     */
+    synchronized void attach(CompletableFuture<?> run) {
+        if (state == State.RUNNING) {
+            this.run = run;
+        }
+    }
+
+    void recordProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void recordFailed() {
+        failed.incrementAndGet();
+    }
+
+    /**
+     * Marks the job as completed, unless it was cancelled before.
+     */
+    synchronized void complete() {
+        if (state == State.RUNNING) {
+            state = State.COMPLETED;
+        }
+        finish();
+    }
+
+    /**
+     * Marks the job as failed, unless it was cancelled before: the run stopped with {@code cause}
+     * before all its items were processed.
+     */
+    synchronized void fail(Throwable cause) {
+        if (state == State.RUNNING) {
+            state = State.FAILED;
+            error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        }
+        finish();
+    }
+
+    /**
+     * Cancels the job: no further items are submitted and tasks that have not started yet are skipped.
+     * @return {@code false} if the job had already finished
+     */
+    synchronized boolean cancel() {
+        if (state != State.RUNNING) {
+            return false;
+        }
+        state = State.CANCELLED;
+        if (run != null) {
+            run.cancel(true);
+        }
+        finish();
+        return true;
+    }
+
+    private void finish() {
+        if (finishedAt == null) {
+            finishedAt = Instant.now();
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+        run = null;
+    }
+
+    /**
+     * @return an immutable view of the job's progress
+     */
+    public ProcessingJobStatus snapshot() {
+        long elapsed = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+        long done = processed.get();
+        double seconds = elapsed / 1_000_000_000.0;
+        return new ProcessingJobStatus(id, runId, state, total.get(), done, failed.get(),
+                seconds > 0 ? done / seconds : 0.0, TimeUnit.NANOSECONDS.toMillis(elapsed), startedAt, finishedAt, error);
+    }
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/items")
+public class ProcessingJobController {
+
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    /**
+     * Starts processing all pending items in the background.
+     * @return HTTP 202 ACCEPTED with the job status and its location, HTTP 503 SERVICE UNAVAILABLE
+     *         if too many jobs are already running, or HTTP 429 TOO MANY REQUESTS with {@code Retry-After}
+     *         if too many processing runs are in progress
+     */
+    @PostMapping("/process-jobs")
+    public ResponseEntity<ProcessingJobStatus> startJob() {
+        try {
+            ProcessingJob job = processingJobService.startJob();
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/items/jobs/" + job.getId()))
+                    .body(job.snapshot());
+        } catch (ProcessingRejectedException e) {
+            return ItemController.rejected(e);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Returns the live progress of a job.
+     * @param id the job ID
+     * @return HTTP 200 OK with the job status, or HTTP 404 NOT FOUND if the job is unknown or expired
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ProcessingJobStatus> getJob(@PathVariable String id) {
+        return processingJobService.findJob(id)
+                .map(job -> new ResponseEntity<>(job.snapshot(), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Cancels a running job; items already processed stay processed.
+     * @param id the job ID
+     * @return HTTP 200 OK with the final job status, or HTTP 404 NOT FOUND if the job is unknown or expired
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<ProcessingJobStatus> cancelJob(@PathVariable String id) {
+        return processingJobService.cancelJob(id)
+                .map(job -> new ResponseEntity<>(job.snapshot(), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
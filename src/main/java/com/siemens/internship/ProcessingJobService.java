@@ -0,0 +1,156 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs item processing as background jobs that can be polled and cancelled.
+ * <p>
+ * The registry is bounded: finished jobs expire after {@code item.processing.jobs.ttl}, and when
+ * {@code item.processing.jobs.max-retained} jobs are tracked the oldest finished job is evicted first.
+ * If every tracked job is still running, new jobs are rejected.
+ * Jobs are processing runs like any other: they count against {@link ProcessingAdmission}, claim their items through
+ * the {@link ItemLeaseManager}, submit at most {@code item.processing.window} items at a time and are checkpointed
+ * by the {@link ProcessingRunService}, which also lets a job resume an interrupted run.
+ * A job's total grows as it claims chunks.
+ */
+@Service
+public class ProcessingJobService {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ProcessingAdmission processingAdmission;
+    @Autowired
+    private ProcessingRunService runService;
+
+    @Value("${item.processing.jobs.max-retained:100}")
+    private int maxRetainedJobs = 100;
+    @Value("${item.processing.jobs.ttl:10m}")
+    private Duration jobTtl = Duration.ofMinutes(10);
+    @Value("${item.processing.window:64}")
+    private int submissionWindow = 64;
+
+    private final Map<String, ProcessingJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Starts processing every pending item in the background and returns immediately.
+     * @return the newly started job
+     * @throws IllegalStateException if the maximum number of jobs is reached and all of them are still running
+     * @throws ProcessingRejectedException if the maximum number of processing runs is in progress
+     */
+    public synchronized ProcessingJob startJob() {
+        ensureCapacity();
+        ProcessingJob job = new ProcessingJob();
+        job.attach(processingAdmission.submit(() -> execute(job, runService.begin())));
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * Continues an interrupted {@link ProcessingRun} from its checkpoint in the background and returns immediately.
+     * @param runId the ID of the run to resume
+     * @return the newly started job, or empty if the run is unknown, completed or still running
+     * @throws IllegalStateException if the maximum number of jobs is reached and all of them are still running
+     * @throws ProcessingRejectedException if the maximum number of processing runs is in progress
+     */
+    public synchronized Optional<ProcessingJob> resumeJob(Long runId) {
+        ensureCapacity();
+        Optional<ProcessingRun> resumed = runService.resume(runId);
+        if (resumed.isEmpty()) {
+            return Optional.empty();
+        }
+        ProcessingRun run = resumed.get();
+        ProcessingJob job = new ProcessingJob();
+        try {
+            job.attach(processingAdmission.submit(() -> execute(job, run)));
+        } catch (ProcessingRejectedException e) {
+            runService.abandon(run);
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        return Optional.of(job);
+    }
+
+    private void ensureCapacity() {
+        purgeExpired();
+        if (jobs.size() >= maxRetainedJobs && !evictOldestFinished()) {
+            throw new IllegalStateException("Too many running processing jobs");
+        }
+    }
+
+    private CompletableFuture<ProcessingReport> execute(ProcessingJob job, ProcessingRun run) {
+        job.setRunId(run.getId());
+        ItemProcessingListener progress = new ItemProcessingListener() {
+            @Override
+            public void onProcessed(Item item) {
+                job.recordProcessed();
+            }
+
+            @Override
+            public void onFailed(Long itemId, Throwable error) {
+                if (!job.isCancelled()) {
+                    job.recordFailed();
+                }
+            }
+
+            @Override
+            public void onClaimed(List<Long> itemIds) {
+                job.addTotal(itemIds.size());
+            }
+        };
+        CompletableFuture<ProcessingReport> future =
+                runService.execute(run, submissionWindow, itemService::processItem, progress);
+        future.whenComplete((report, ex) -> {
+            if (ex == null) {
+                job.complete();
+            } else {
+                //a cancelled job keeps its state, fail only applies to a running one
+                job.fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return the job with the given ID, unless it is unknown or has expired
+     */
+    public Optional<ProcessingJob> findJob(String id) {
+        purgeExpired();
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Cancels a running job. Cancelling a finished job has no effect.
+     * @return the job, or empty if it is unknown or has expired
+     */
+    public Optional<ProcessingJob> cancelJob(String id) {
+        Optional<ProcessingJob> job = findJob(id);
+        job.ifPresent(ProcessingJob::cancel);
+        return job;
+    }
+
+    private void purgeExpired() {
+        Instant expiredBefore = Instant.now().minus(jobTtl);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiredBefore));
+    }
+
+    private boolean evictOldestFinished() {
+        return jobs.values().stream()
+                .filter(ProcessingJob::isFinished)
+                .min(Comparator.comparing(ProcessingJob::getFinishedAt))
+                .map(job -> jobs.remove(job.getId()) != null)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.siemens.internship;
+
+import java.time.Instant;
+
+/**
+ * Progress of a background processing job as returned by the job endpoints.
+ * @param id the job ID
+ * @param runId the ID of the {@link ProcessingRun} the job executes
+ * @param state whether the job is running, completed, failed or cancelled
+ * @param total number of items the job was started with
+ * @param processed number of items processed successfully so far
+ * @param failed number of items whose processing failed so far
+ * @param itemsPerSecond throughput of successfully processed items
+ * @param elapsedMillis time since the job started, or its total duration once finished
+ * @param startedAt when the job started
+ * @param finishedAt when the job finished, or {@code null} while it is running
+ * @param error why the run stopped, only set for a failed job
+ */
+public record ProcessingJobStatus(String id, Long runId, ProcessingJob.State state, long total, long processed,
+                                  long failed, double itemsPerSecond, long elapsedMillis, Instant startedAt,
+                                  Instant finishedAt, String error) {
+}
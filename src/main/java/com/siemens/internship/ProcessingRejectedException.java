@@ -0,0 +1,36 @@
+package com.siemens.internship;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a processing run cannot be accepted because the system is saturated.
+ * Carries the HTTP status to answer with and how long the caller should wait before retrying.
+ */
+public class ProcessingRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public ProcessingRejectedException(String message, HttpStatus status, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return the retry delay as a {@code Retry-After} header value, in whole seconds rounded up
+     */
+    public String retryAfterSeconds() {
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+}
@@ -0,0 +1,31 @@
+package com.siemens.internship;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a processing run: how many items were processed, how long it took and the resulting throughput.
+ * @param processed number of items processed successfully
+ * @param failed number of items whose processing failed
+ * @param elapsedMillis wall-clock duration of the run in milliseconds
+ * @param itemsPerSecond throughput of successfully processed items
+ */
+public record ProcessingReport(long processed, long failed, long elapsedMillis, double itemsPerSecond) {
+
+    /**
+     * Builds a report for a run without failures that started at {@code startNanos}
+     * (as given by {@link System#nanoTime()}) and ends now.
+     */
+    public static ProcessingReport of(long processed, long startNanos) {
+        return of(processed, 0, startNanos);
+    }
+
+    /**
+     * Builds a report for a run that started at {@code startNanos} (as given by {@link System#nanoTime()}) and ends now.
+     */
+    public static ProcessingReport of(long processed, long failed, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double itemsPerSecond = seconds > 0 ? processed / seconds : 0.0;
+        return new ProcessingReport(processed, failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), itemsPerSecond);
+    }
+}
@@ -0,0 +1,64 @@
+package com.siemens.internship;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Durable record of a checkpointed processing run, see {@link ProcessingRunService}.
+ * <p>
+ * Counters cover every execution of the run, so they keep adding up when an interrupted run is resumed.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingRun {
+
+    public enum State {
+        /** Executing, or interrupted by a crash if {@link #updatedAt} is older than a lease. */
+        RUNNING,
+        /** Every item claimed by the run was processed or dead-lettered. */
+        COMPLETED,
+        /** Stopped, failed or finished with items left pending; can be resumed from its checkpoint. */
+        INTERRUPTED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private State state;
+    //highest item ID up to which every item the run claimed is processed or dead-lettered, null before the first one
+    private Long checkpoint;
+    private long claimed;
+    private long processed;
+    private long retried;
+    private long deadLettered;
+    private Instant startedAt;
+    //written on every checkpoint, so it doubles as the heartbeat of a running run
+    private Instant updatedAt;
+    private Instant finishedAt;
+
+    /**
+     * @return a new run in state {@link State#RUNNING}, starting at the first pending item
+     */
+    static ProcessingRun start() {
+        ProcessingRun run = new ProcessingRun();
+        run.state = State.RUNNING;
+        run.startedAt = Instant.now();
+        run.updatedAt = run.startedAt;
+        return run;
+    }
+}
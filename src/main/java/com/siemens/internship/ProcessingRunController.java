@@ -0,0 +1,74 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/items/runs")
+public class ProcessingRunController {
+
+    @Autowired
+    private ProcessingRunService processingRunService;
+
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    /**
+     * Returns the state, checkpoint and counters of a processing run.
+     * @param id the run ID
+     * @return HTTP 200 OK with the run, or HTTP 404 NOT FOUND if the run is unknown
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ProcessingRun> getRun(@PathVariable Long id) {
+        return processingRunService.findRun(id)
+                .map(run -> new ResponseEntity<>(run, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Returns the items a run dead-lettered, with the error that made their processing fail.
+     * @param id the run ID
+     * @return HTTP 200 OK with the dead letters ordered by item ID, or HTTP 404 NOT FOUND if the run is unknown
+     */
+    @GetMapping("/{id}/dead-letters")
+    public ResponseEntity<List<ItemDeadLetter>> getDeadLetters(@PathVariable Long id) {
+        if (processingRunService.findRun(id).isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(processingRunService.findDeadLetters(id), HttpStatus.OK);
+    }
+
+    /**
+     * Resumes an interrupted run from its checkpoint as a background job.
+     * @param id the run ID
+     * @return HTTP 202 ACCEPTED with the job status and its location, HTTP 404 NOT FOUND if the run is unknown,
+     *         HTTP 409 CONFLICT if it is completed or still running, HTTP 503 SERVICE UNAVAILABLE if too many jobs are
+     *         already running, or HTTP 429 TOO MANY REQUESTS with {@code Retry-After} if too many processing runs are
+     *         in progress
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ProcessingJobStatus> resumeRun(@PathVariable Long id) {
+        if (processingRunService.findRun(id).isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        try {
+            Optional<ProcessingJob> job = processingJobService.resumeJob(id);
+            if (job.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/items/jobs/" + job.get().getId()))
+                    .body(job.get().snapshot());
+        } catch (ProcessingRejectedException e) {
+            return ItemController.rejected(e);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.siemens.internship;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ProcessingRunRepository extends JpaRepository<ProcessingRun, Long> {
+
+    /**
+     * Takes over a run for resumption if it was interrupted, or is still marked running but has not written a checkpoint
+     * since {@code staleBefore}. The condition is part of the UPDATE, so of several concurrent resumptions only one
+     * succeeds.
+     * @return 1 if the run was taken over, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE ProcessingRun r SET r.state = :running, r.updatedAt = :now, r.finishedAt = NULL WHERE r.id = :id "
+            + "AND (r.state = :interrupted OR (r.state = :running AND r.updatedAt < :staleBefore))")
+    int acquire(@Param("id") Long id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore,
+                @Param("running") ProcessingRun.State running, @Param("interrupted") ProcessingRun.State interrupted);
+}
@@ -0,0 +1,278 @@
+package com.siemens.internship;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Executes processing runs that record the outcome of every item and can be resumed after an interruption.
+ * <p>
+ * Each run is stored as a {@link ProcessingRun} and claims pending items chunk by chunk through the
+ * {@link ItemLeaseManager}. An item ends up processed, or, if its processing fails permanently, in the
+ * {@link ItemDeadLetter} table with status {@link ItemStatus#FAILED}; a bad item never aborts the run. Only the
+ * version of an item the run claimed is dead-lettered: one changed since stays pending, one deleted since is skipped.
+ * Transient failures are retried as the {@link ItemRetryPolicy} says; an item that keeps failing is left pending.
+ * <p>
+ * Before every chunk and when the run ends, the run's checkpoint is stored: the highest item ID up to which every
+ * item the run claimed is processed or dead-lettered. The {@link ItemStatusBuffer} is flushed first, so the checkpoint
+ * never covers a status that is not stored yet. An interrupted run taken over with {@link #resume(Long)} continues
+ * claiming behind its checkpoint instead of scanning the table from the first item, and keeps adding to its counters.
+ * Items before the checkpoint that become pending again are left to later runs.
+ */
+@Service
+public class ProcessingRunService {
+    private static final Logger log = LoggerFactory.getLogger(ProcessingRunService.class);
+
+    @Autowired
+    private ProcessingRunRepository runRepository;
+    @Autowired
+    private ItemDeadLetterRepository deadLetterRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemLeaseManager leaseManager;
+    @Autowired
+    private ItemProcessingExecutor processingExecutor;
+    @Autowired
+    private ItemStatusBuffer statusBuffer;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private ItemMetrics itemMetrics;
+    @Autowired
+    private ItemRetryPolicy retryPolicy;
+
+    public Optional<ProcessingRun> findRun(Long id) {
+        return runRepository.findById(id);
+    }
+
+    /**
+     * @return the items dead-lettered by the given run, ordered by item ID
+     */
+    public List<ItemDeadLetter> findDeadLetters(Long runId) {
+        return deadLetterRepository.findByRunIdOrderByItemId(runId);
+    }
+
+    /**
+     * Records a new run starting at the first pending item.
+     */
+    public ProcessingRun begin() {
+        return runRepository.save(ProcessingRun.start());
+    }
+
+    /**
+     * Takes over a run to continue it from its checkpoint. A run can be resumed once it was interrupted, or when it is
+     * still marked running but has not stored a checkpoint for longer than a lease, i.e. its node is gone.
+     * @return the run, now marked running, or empty if it is unknown, completed or still running
+     */
+    public Optional<ProcessingRun> resume(Long id) {
+        Instant now = Instant.now();
+        int acquired = runRepository.acquire(id, now, now.minus(leaseManager.getLeaseDuration()),
+                ProcessingRun.State.RUNNING, ProcessingRun.State.INTERRUPTED);
+        return acquired == 0 ? Optional.empty() : runRepository.findById(id);
+    }
+
+    /**
+     * Marks a run taken over with {@link #resume(Long)} as interrupted again without executing it,
+     * e.g. because it was not admitted.
+     */
+    public void abandon(ProcessingRun run) {
+        Instant now = Instant.now();
+        run.setState(ProcessingRun.State.INTERRUPTED);
+        run.setUpdatedAt(now);
+        run.setFinishedAt(now);
+        runRepository.save(run);
+    }
+
+    /**
+     * Executes {@code run}, processing each claimed item with {@code task}.
+     * Cancelling the returned future stops the run; tasks that have not started yet are skipped.
+     *
+     * @param run a run returned by {@link #begin()} or {@link #resume(Long)}
+     * @param window maximum number of items being processed or awaiting delivery at the same time
+     * @param listener receives every processed item or failure, never concurrently
+     * @return a future completed with a {@link ProcessingReport} once no claimable item is left, or exceptionally
+     *         if claiming fails, the listener fails or the processing queue is full
+     */
+    public CompletableFuture<ProcessingReport> execute(ProcessingRun run, int window, Function<Long, Item> task,
+                                                       ItemProcessingListener listener) {
+        String owner = leaseManager.newOwner();
+        Progress progress = new Progress(run);
+        CompletableFuture<ProcessingReport> result = processingExecutor.submitChunked(() -> {
+            //the previous chunk is delivered: store how far the run got, then continue behind that chunk
+            checkpoint(progress, ProcessingRun.State.RUNNING);
+            List<Long> itemIds = leaseManager.claim(owner, progress.lastClaimedId);
+            Map<Long, Long> versions = new HashMap<>();
+            if (!itemIds.isEmpty()) {
+                itemRepository.findVersions(itemIds).forEach(item -> versions.put(item.getId(), item.getVersion()));
+            }
+            progress.startChunk(itemIds, versions);
+            if (!itemIds.isEmpty()) {
+                listener.onClaimed(itemIds);
+            }
+            return itemIds;
+        }, window, id -> process(progress, id, task), listener);
+        result.whenComplete((report, ex) -> {
+            progress.stopped = true;
+            try {
+                checkpoint(progress, ex == null ? ProcessingRun.State.COMPLETED : ProcessingRun.State.INTERRUPTED);
+            } finally {
+                leaseManager.release(owner);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Processes one item, retrying transient failures and dead-lettering permanent ones.
+     * Failures are rethrown either way, so the listener still hears about them, and counted once per item
+     * when it is given up, however many attempts it took.
+     */
+    private Item process(Progress progress, Long id, Function<Long, Item> task) {
+        for (int attempt = 1; ; attempt++) {
+            if (progress.stopped) {
+                throw new CancellationException("Processing run " + progress.run.getId() + " was stopped");
+            }
+            try {
+                Item item = task.apply(id);
+                progress.processed.incrementAndGet();
+                progress.finished.add(id);
+                return item;
+            } catch (RuntimeException e) {
+                //the run is shutting down: not the item's fault, it stays pending
+                if (Thread.currentThread().isInterrupted() || e instanceof CancellationException) {
+                    throw e;
+                }
+                if (!retryPolicy.isTransient(e)) {
+                    if (deadLetter(progress, id, attempt, e)) {
+                        itemMetrics.failed();
+                    }
+                    throw e;
+                }
+                if (attempt >= retryPolicy.getMaxAttempts()) {
+                    log.warn("Item {} still failing after {} attempts, leaving it pending", id, attempt, e);
+                    itemMetrics.failed();
+                    throw e;
+                }
+                progress.retried.incrementAndGet();
+                itemMetrics.retried();
+                try {
+                    Thread.sleep(retryPolicy.backoff(attempt).toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the item {@link ItemStatus#FAILED} and records why, provided it still has the version the run claimed.
+     * An item changed since is left pending, so its new content is processed by a later run; a deleted item is
+     * simply done.
+     * @return whether the item was dead-lettered
+     */
+    private boolean deadLetter(Progress progress, Long id, int attempts, RuntimeException error) {
+        Long version = progress.versions.get(id);
+        if (version == null || itemRepository.updateStatus(id, ItemStatus.FAILED, version) == 0) {
+            if (version == null || !itemRepository.existsById(id)) {
+                progress.finished.add(id);
+            }
+            log.info("Item {} was changed or deleted since it was claimed, not dead-lettering it", id);
+            return false;
+        }
+        deadLetterRepository.save(new ItemDeadLetter(id, progress.run.getId(), attempts, error));
+        itemCache.invalidate(id);
+        itemMetrics.deadLettered();
+        progress.deadLettered.incrementAndGet();
+        progress.finished.add(id);
+        return true;
+    }
+
+    /**
+     * Moves the checkpoint over the finished prefix of the current chunk and stores the run with its counters.
+     * @param state {@link ProcessingRun.State#RUNNING} while the run goes on, otherwise the state it ended in;
+     *              a run ending with items left pending is stored as interrupted
+     */
+    private void checkpoint(Progress progress, ProcessingRun.State state) {
+        statusBuffer.flush();
+        synchronized (progress) {
+            ProcessingRun run = progress.run;
+            if (run.getState() != ProcessingRun.State.RUNNING) {
+                return;
+            }
+            for (Long id : progress.chunk) {
+                if (!progress.finished.contains(id)) {
+                    progress.gap = true;
+                }
+                if (progress.gap) {
+                    break;
+                }
+                run.setCheckpoint(id);
+            }
+            Instant now = Instant.now();
+            run.setProcessed(progress.processed.get());
+            run.setRetried(progress.retried.get());
+            run.setDeadLettered(progress.deadLettered.get());
+            run.setUpdatedAt(now);
+            if (state != ProcessingRun.State.RUNNING) {
+                run.setState(progress.gap ? ProcessingRun.State.INTERRUPTED : state);
+                run.setFinishedAt(now);
+                log.info("Processing run {} {}: checkpoint={}, processed={}, retried={}, deadLettered={}",
+                        run.getId(), run.getState(), run.getCheckpoint(), run.getProcessed(), run.getRetried(),
+                        run.getDeadLettered());
+            }
+            runRepository.save(run);
+        }
+    }
+
+    /**
+     * In-memory state of one execution of a run.
+     */
+    private static final class Progress {
+        private final ProcessingRun run;
+        private final AtomicLong processed;
+        private final AtomicLong retried;
+        private final AtomicLong deadLettered;
+        //items of the current chunk that are processed or dead-lettered
+        private final Set<Long> finished = ConcurrentHashMap.newKeySet();
+        private List<Long> chunk = List.of();
+        //version of each item of the current chunk when it was claimed, absent if it was already deleted
+        private volatile Map<Long, Long> versions = Map.of();
+        private volatile Long lastClaimedId;
+        //an item of an earlier chunk was left pending, so the checkpoint cannot move past it anymore
+        private boolean gap;
+        private volatile boolean stopped;
+
+        Progress(ProcessingRun run) {
+            this.run = run;
+            this.processed = new AtomicLong(run.getProcessed());
+            this.retried = new AtomicLong(run.getRetried());
+            this.deadLettered = new AtomicLong(run.getDeadLettered());
+            this.lastClaimedId = run.getCheckpoint() == null ? Long.MIN_VALUE : run.getCheckpoint();
+        }
+
+        synchronized void startChunk(List<Long> itemIds, Map<Long, Long> versions) {
+            chunk = itemIds;
+            this.versions = versions;
+            finished.clear();
+            if (!itemIds.isEmpty()) {
+                lastClaimedId = itemIds.get(itemIds.size() - 1);
+                run.setClaimed(run.getClaimed() + itemIds.size());
+            }
+        }
+    }
+}
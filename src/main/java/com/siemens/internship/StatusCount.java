@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+/**
+ * Projection of the number of items in one status.
+ */
+public interface StatusCount {
+
+    ItemStatus getStatus();
+
+    long getCount();
+}
@@ -0,0 +1,25 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ItemJsonCache jsonCache;
+
+    /**
+     * With {@code item.json-cache.enabled}, items are written from the {@link ItemJsonCache} ahead of Jackson.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (jsonCache.isEnabled()) {
+            converters.add(0, new ItemJsonHttpMessageConverter(jsonCache));
+        }
+    }
+}
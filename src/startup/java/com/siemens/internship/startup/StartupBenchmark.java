@@ -0,0 +1,161 @@
+package com.siemens.internship.startup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how fast the packaged application serves its first request in each startup mode, built by the
+ * {@code faststart} Maven profile: {@code mvn -P faststart -DskipTests verify -Dstartup.args="runs=10"}.
+ * <ul>
+ *     <li>{@code default}: {@code java -jar}</li>
+ *     <li>{@code lazy}: the {@code faststart} Spring profile, i.e. lazy initialization and the {@code Item} warmup</li>
+ *     <li>{@code cds}: the class-data-sharing archive of the training run</li>
+ *     <li>{@code optimized}: the archive, the Spring AOT code and the {@code faststart} profile together</li>
+ * </ul>
+ * Each run starts a new JVM, measures the time from starting the process until {@code GET /api/items} first answers
+ * 200 OK, then reads the resident set size of the process (Linux only) and stops it.
+ * The modes take turns, so a machine getting slower or faster during the benchmark affects all of them alike.
+ * <p>
+ * Options, as {@code key=value}: {@code jar} and {@code archive} (set by the profile), {@code runs} per mode
+ * (default 5), {@code modes} as a comma-separated list and {@code timeout} per start in seconds (default 120).
+ */
+public class StartupBenchmark {
+
+    private record Sample(long millis, long rssKilobytes) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of("runs", "5", "modes", "default,lazy,cds,optimized",
+                "timeout", "120"));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        Path jar = Path.of(options.getOrDefault("jar", "target/faststart/internship-0.0.1-SNAPSHOT.jar"));
+        Path archive = Path.of(options.getOrDefault("archive", "target/faststart/application.jsa"));
+        int runs = Integer.parseInt(options.get("runs"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.get("timeout")));
+        List<String> modes = Arrays.asList(options.get("modes").split(","));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("No application jar at " + jar + ", build it with -P faststart");
+        }
+
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        modes.forEach(mode -> samples.put(mode, new ArrayList<>()));
+        for (int run = 1; run <= runs; run++) {
+            for (String mode : modes) {
+                Sample sample = start(jvmOptions(mode, archive), jar, timeout);
+                samples.get(mode).add(sample);
+                System.out.printf(Locale.ROOT, "run %d %-10s %6d ms %8.1f MB%n", run, mode, sample.millis(),
+                        sample.rssKilobytes() / 1024.0);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%nTime to first successful GET /api/items and RSS, %d runs per mode%n", runs);
+        System.out.printf(Locale.ROOT, "%-10s %10s %10s %10s %12s%n", "mode", "median ms", "min ms", "max ms", "RSS MB");
+        for (Map.Entry<String, List<Sample>> entry : samples.entrySet()) {
+            long[] millis = entry.getValue().stream().mapToLong(Sample::millis).sorted().toArray();
+            long[] rss = entry.getValue().stream().mapToLong(Sample::rssKilobytes).sorted().toArray();
+            System.out.printf(Locale.ROOT, "%-10s %10d %10d %10d %12.1f%n", entry.getKey(), median(millis), millis[0],
+                    millis[millis.length - 1], median(rss) / 1024.0);
+        }
+    }
+
+    private static List<String> jvmOptions(String mode, Path archive) {
+        return switch (mode) {
+            case "default" -> List.of();
+            case "lazy" -> List.of("-Dspring.profiles.active=faststart");
+            case "cds" -> List.of("-XX:SharedArchiveFile=" + archive);
+            case "optimized" -> List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=faststart");
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        };
+    }
+
+    private static Sample start(List<String> jvmOptions, Path jar, Duration timeout) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/items"))
+                .timeout(timeout).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Application did not answer within " + timeout + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    //not listening yet
+                }
+                Thread.sleep(5);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Sample(millis, residentKilobytes(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * @return the resident set size of the process, or -1 where {@code /proc} is not available
+     */
+    private static long residentKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,32 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ETagsTest {
+
+    @Test
+    void testOf_Item() {
+        Item item = new Item(7L, "A", "desc", ItemStatus.NEW, "a@b.com");
+        item.setVersion(2L);
+
+        assertThat(ETags.of(item)).isEqualTo("\"7-2\"");
+    }
+
+    @Test
+    void testMatchesIfNoneMatch() {
+        assertThat(ETags.matchesIfNoneMatch("\"7-2\"", "\"7-2\"")).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("\"1-1\", W/\"7-2\"", "\"7-2\"")).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("*", "\"7-2\"")).isTrue();
+        assertThat(ETags.matchesIfNoneMatch("\"7-1\"", "\"7-2\"")).isFalse();
+        assertThat(ETags.matchesIfNoneMatch(null, "\"7-2\"")).isFalse();
+    }
+
+    @Test
+    void testMatchesIfMatch_UsesStrongComparison() {
+        assertThat(ETags.matchesIfMatch("\"7-2\"", "\"7-2\"")).isTrue();
+        assertThat(ETags.matchesIfMatch("W/\"7-2\"", "\"7-2\"")).isFalse();
+        assertThat(ETags.matchesIfMatch("\"7-1\"", "\"7-2\"")).isFalse();
+    }
+}
@@ -0,0 +1,96 @@
+package com.siemens.internship;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailValidatorTest {
+
+    //the expression Item.setEmail used before the scanner, kept as the reference
+    private static final Pattern REFERENCE = Pattern.compile("^[A-Za-z][A-Za-z0-9._-]*@[A-Za-z0-9][A-Za-z0-9._-]*\\.[A-Za-z]+$");
+    //weighted towards the characters that matter to the grammar
+    private static final String ALPHABET = "aZk09._-@@..@-_ +é\n\tAz";
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void acceptsWellFormedAddresses() {
+        assertThat(EmailValidator.isValid("user.name@example.com")).isTrue();
+        assertThat(EmailValidator.isValid("a@b.co")).isTrue();
+        assertThat(EmailValidator.isValid("a-b_c.d@1domain.sub.org")).isTrue();
+        assertThat(EmailValidator.isValid("a@b..c")).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedAddresses() {
+        assertThat(EmailValidator.isValid("")).isFalse();
+        assertThat(EmailValidator.isValid("invalid-email@.com")).isFalse();
+        assertThat(EmailValidator.isValid("invalid-email@a.")).isFalse();
+        assertThat(EmailValidator.isValid("_invalid-email@@a.com")).isFalse();
+        assertThat(EmailValidator.isValid("user@example.c0m")).isFalse();
+        assertThat(EmailValidator.isValid("user@example")).isFalse();
+        assertThat(EmailValidator.isValid("user@")).isFalse();
+        assertThat(EmailValidator.isValid("user")).isFalse();
+        assertThat(EmailValidator.isValid("user@example.com\n")).isFalse();
+        assertThat(EmailValidator.isValid("us er@example.com")).isFalse();
+    }
+
+    @Test
+    void agreesWithReferenceExpressionOnRandomCorpus() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500_000; i++) {
+            String email = i % 2 == 0 ? randomString(random) : randomAddress(random);
+            assertThat(EmailValidator.isValid(email))
+                    .as("validity of '%s'", email)
+                    .isEqualTo(REFERENCE.matcher(email).matches());
+        }
+    }
+
+    @Test
+    void constraintUsesValidator() {
+        assertThat(validator.validateValue(Item.class, "email", "user.name@example.com")).isEmpty();
+        assertThat(validator.validateValue(Item.class, "email", null)).isEmpty();
+        assertThat(validator.validateValue(Item.class, "email", "invalid-email@.com"))
+                .extracting(violation -> violation.getMessage())
+                .containsExactly("Invalid email format");
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    //mostly well-formed local@domain.tld shapes with random mutations, so both outcomes are well covered
+    private static String randomAddress(Random random) {
+        String address = randomString(random) + "a" + randomString(random) + "@" + randomString(random) + "."
+                + (random.nextBoolean() ? "com" : randomString(random));
+        if (random.nextInt(3) == 0) {
+            return address.replaceAll("[^A-Za-z0-9._-]", "x").replaceFirst("x", "@");
+        }
+        return address;
+    }
+}
@@ -0,0 +1,107 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs the whole application, with both caches enabled, and checks what requests leave behind in the caches and
+ * persistence contexts.
+ */
+class ItemApiConsistencyTest {
+
+    private static ConfigurableApplicationContext context;
+    private static URI items;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(InternshipApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:consistency;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--item.json-cache.enabled=true",
+                        "--item.bulk.batch-size=2");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        items = URI.create("http://localhost:" + port + "/api/items");
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @Test
+    void testFailedPut_GetReturnsCommittedState() throws Exception {
+        Item item = context.getBean(ItemService.class)
+                .save(new Item(null, "Original", "desc", ItemStatus.NEW, "a@b.com"));
+        URI itemUri = URI.create(items + "/" + item.getId());
+        assertThat(get(itemUri).get("name").asText()).isEqualTo("Original");
+
+        //another node commits a change the caches of this node do not know about yet
+        context.getBean(JdbcTemplate.class).update(
+                "UPDATE item SET name = 'Committed', version = version + 1 WHERE id = ?", item.getId());
+
+        HttpResponse<String> put = client.send(HttpRequest.newBuilder(itemUri)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"Rejected\",\"description\":\"desc\",\"status\":\"NEW\",\"email\":\"a@b.com\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(put.statusCode()).isEqualTo(409);
+
+        JsonNode current = get(itemUri);
+        assertThat(current.get("name").asText()).isEqualTo("Committed");
+        assertThat(current.get("version").asLong()).isEqualTo(item.getVersion() + 1);
+    }
+
+    @Test
+    void testBulkIngest_LeavesNoItemsInAnEnclosingPersistenceContext() throws Exception {
+        //bound like open-in-view binds one for the whole request
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            BulkIngestResult result = context.getBean(ItemBulkIngestService.class).ingest(new ByteArrayInputStream("""
+                    {"name":"A","email":"a@b.com"}
+                    {"name":"B","email":"b@b.com"}
+                    {"name":"C","email":"c@b.com"}
+                    {"name":"D","email":"d@b.com"}
+                    {"name":"E","email":"e@b.com"}""".getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(result.inserted()).isEqualTo(5);
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    private JsonNode get(URI uri) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+}
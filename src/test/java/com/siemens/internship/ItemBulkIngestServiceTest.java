@@ -0,0 +1,100 @@
+package com.siemens.internship;
+
+import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class ItemBulkIngestServiceTest {
+
+    @InjectMocks
+    private ItemBulkIngestService bulkIngestService;
+
+    @Mock
+    private ItemService itemService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bulkIngestService, "batchSize", 2);
+        when(itemService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> batch = List.copyOf(invocation.getArgument(0));
+            batchSizes.add(batch.size());
+            return batch;
+        });
+    }
+
+    @Test
+    void testIngest_JsonArrayInBatches() throws Exception {
+        BulkIngestResult result = bulkIngestService.ingest(body("""
+                [{"name":"A","email":"a@b.com"},{"name":"B","email":"b@b.com"},{"name":"C","email":"c@b.com"}]"""));
+
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.inserted()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        assertThat(batchSizes).containsExactly(2, 1);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void testIngest_NdjsonReportsInvalidRecords() throws Exception {
+        BulkIngestResult result = bulkIngestService.ingest(body("""
+                {"name":"A","email":"a@b.com"}
+                {"name":"B","email":"not-an-email"}
+                {"id":5,"name":"C","email":"c@b.com"}
+                {"name":"D"}
+                42
+                {"name":"E","email":"e@b.com"}
+                """));
+
+        assertThat(result.received()).isEqualTo(6);
+        assertThat(result.inserted()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(4);
+        assertThat(result.aborted()).isFalse();
+        assertThat(result.errors()).extracting(BulkRecordError::index).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(result.errors().get(0).error()).isEqualTo("Invalid email format");
+    }
+
+    @Test
+    void testIngest_MalformedJsonAbortsButKeepsEarlierRecords() throws Exception {
+        BulkIngestResult result = bulkIngestService.ingest(body("""
+                {"name":"A","email":"a@b.com"}
+                {"name":"B",
+                """));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.aborted()).isTrue();
+        assertThat(result.errors()).extracting(BulkRecordError::index).containsExactly(1L);
+    }
+
+    @Test
+    void testIngest_EmptyBody() throws Exception {
+        BulkIngestResult result = bulkIngestService.ingest(body(""));
+
+        assertThat(result.received()).isZero();
+        verify(itemService, never()).saveAll(anyList());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
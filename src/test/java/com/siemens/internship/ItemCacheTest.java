@@ -0,0 +1,109 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class ItemCacheTest {
+
+    private final ItemCache itemCache = new ItemCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        AtomicInteger loads = new AtomicInteger();
+        Item item = new Item(1L, "A", "desc", ItemStatus.NEW, "a@b.com");
+
+        itemCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(item);
+        });
+        Optional<Item> cached = itemCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(cached).contains(item);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(itemCache.stats().hits()).isEqualTo(1);
+        assertThat(itemCache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_MissingItemsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        itemCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        itemCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidate_NextGetReloads() {
+        itemCache.get(1L, id -> Optional.of(new Item(1L, "old", "desc", ItemStatus.NEW, "a@b.com")));
+
+        itemCache.invalidateAll(List.of(1L));
+        Optional<Item> reloaded = itemCache.get(1L, id -> Optional.of(new Item(1L, "new", "desc", ItemStatus.NEW, "a@b.com")));
+
+        assertThat(reloaded).map(Item::getName).contains("new");
+    }
+
+    @Test
+    void testInvalidate_DiscardsLoadInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> database = new AtomicReference<>("old");
+
+        //a reader loads the old state, then a writer commits and invalidates while the load is still running
+        CompletableFuture<Optional<Item>> reader = CompletableFuture.supplyAsync(() -> itemCache.get(1L, id -> {
+            String name = database.get();
+            loading.countDown();
+            await(release);
+            return Optional.of(new Item(1L, name, "desc", ItemStatus.NEW, "a@b.com"));
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        database.set("new");
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> itemCache.invalidate(1L));
+        release.countDown();
+        reader.get(5, TimeUnit.SECONDS);
+        writer.get(5, TimeUnit.SECONDS);
+
+        Optional<Item> afterWrite = itemCache.get(1L, id -> Optional.of(new Item(1L, database.get(), "desc", ItemStatus.NEW, "a@b.com")));
+        assertThat(afterWrite).map(Item::getName).contains("new");
+    }
+
+    @Test
+    void testMaxSize_EvictsEntries() {
+        ItemCache small = new ItemCache(2, Duration.ofMinutes(1));
+        for (long id = 1; id <= 50; id++) {
+            small.get(id, key -> Optional.of(new Item(key, "A", "desc", ItemStatus.NEW, "a@b.com")));
+        }
+
+        ItemCacheStats stats = small.stats();
+        assertThat(stats.size()).isLessThanOrEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(48);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,13 +3,23 @@ package com.siemens.internship;
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 class ItemControllerTest {
 
@@ -22,25 +32,166 @@ class ItemControllerTest {
     @Mock
     private BindingResult bindingResult;
 
+    @Mock
+    private ItemBulkIngestService bulkIngestService;
+
+    @Mock
+    private ItemExportService exportService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        ItemsFingerprint fingerprint = mock(ItemsFingerprint.class);
+        when(fingerprint.getCount()).thenReturn(1L);
+        when(fingerprint.getIdSum()).thenReturn(1L);
+        when(fingerprint.getVersionSum()).thenReturn(0L);
+        when(itemService.fingerprint()).thenReturn(fingerprint);
     }
 
     @Test
     void testGetAllItems() {
-        List<Item> mockItems = List.of(new Item(1L, "item1", "desc", "NEW", "a@b.com"));
+        List<Item> mockItems = List.of(new Item(1L, "item1", "desc", ItemStatus.NEW, "a@b.com"));
         when(itemService.findAll()).thenReturn(mockItems);
 
-        ResponseEntity<List<Item>> response = itemController.getAllItems();
+        ResponseEntity<List<Item>> response = itemController.getAllItems(null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).containsExactlyElementsOf(mockItems);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"items-1-1-0\"");
+    }
+
+    @Test
+    void testGetAllItems_NotModified() {
+        ResponseEntity<List<Item>> response = itemController.getAllItems("\"items-1-1-0\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verify(itemService, never()).findAll();
+    }
+
+    @Test
+    void testGetItemPage() {
+        ItemPage page = new ItemPage(List.of(new Item(1L, "item1", "desc", ItemStatus.NEW, "a@b.com")), 1L);
+        when(itemService.findPage(null, 1)).thenReturn(page);
+
+        ResponseEntity<ItemPage> response = itemController.getItemPage(null, 1);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    void testGetItemPage_InvalidSize() {
+        assertThat(itemController.getItemPage(null, 0).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(itemController.getItemPage(null, ItemController.MAX_PAGE_SIZE + 1).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(itemService, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    void testSearchItems() {
+        ItemPage page = new ItemPage(List.of(new Item(1L, "item1", "desc", ItemStatus.NEW, "a@b.com")), null);
+        when(itemService.search("item*", null, 10)).thenReturn(page);
+
+        ResponseEntity<ItemPage> response = itemController.searchItems("item*", null, 10);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    void testSearchItems_InvalidQueryOrSize() {
+        when(itemService.search(eq("*"), any(), anyInt())).thenThrow(new IllegalArgumentException("Query must contain at least one term"));
+
+        assertThat(itemController.searchItems("*", null, 10).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(itemController.searchItems("item", null, 0).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(itemController.searchItems("item", null, ItemController.MAX_PAGE_SIZE + 1).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testGetSearchStats() {
+        ItemSearchStats stats = new ItemSearchStats(1, 2, 2, 300);
+        when(itemService.searchStats()).thenReturn(stats);
+
+        assertThat(itemController.getSearchStats().getBody()).isEqualTo(stats);
+    }
+
+    @Test
+    void testStreamItems() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(0);
+            consumer.accept(new Item(1L, "item1", "desc", ItemStatus.NEW, "a@b.com"));
+            consumer.accept(new Item(2L, "item2", "desc", ItemStatus.NEW, "c@d.com"));
+            return null;
+        }).when(itemService).streamAll(any());
+
+        ResponseEntity<StreamingResponseBody> response = itemController.streamItems();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[1], Item.class).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void testExportItems_Binary() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = itemController.exportItems("bin");
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("items.bin");
+        verify(exportService).export(eq(ItemExportFormat.BINARY), any());
+    }
+
+    @Test
+    void testExportItems_DefaultsToCsv() {
+        ResponseEntity<StreamingResponseBody> response = itemController.exportItems("CSV");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString()).isEqualTo("text/csv;charset=UTF-8");
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("items.csv");
+    }
+
+    @Test
+    void testExportItems_UnknownFormat() {
+        ResponseEntity<StreamingResponseBody> response = itemController.exportItems("xml");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void testGetStatusCounts() {
+        Map<ItemStatus, Long> counts = Map.of(ItemStatus.NEW, 2L, ItemStatus.PROCESSED, 5L);
+        when(itemService.countByStatus()).thenReturn(counts);
+
+        ResponseEntity<Map<ItemStatus, Long>> response = itemController.getStatusCounts();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(counts);
+    }
+
+    @Test
+    void testGetCacheStats() {
+        ItemCacheStats stats = new ItemCacheStats(3, 1, 0, 1, 0.75);
+        when(itemService.cacheStats()).thenReturn(stats);
+
+        ResponseEntity<ItemCacheStats> response = itemController.getCacheStats();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(stats);
     }
 
     @Test
     void testCreateItem_Valid() {
-        Item item = new Item(null, "item1", "desc", "NEW", "a@b.com");
+        Item item = new Item(null, "item1", "desc", ItemStatus.NEW, "a@b.com");
         when(bindingResult.hasErrors()).thenReturn(false);
         when(itemService.save(item)).thenReturn(item);
 
@@ -61,51 +212,148 @@ class ItemControllerTest {
         assertThat(response.getBody()).isNull();
     }
 
+    @Test
+    void testCreateItems() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        BulkIngestResult result = new BulkIngestResult(2, 1, 1, List.of(new BulkRecordError(1, "Invalid email format")), false);
+        when(bulkIngestService.ingest(body)).thenReturn(result);
+
+        ResponseEntity<BulkIngestResult> response = itemController.createItems(body);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(result);
+    }
+
+    @Test
+    void testCreateItems_MalformedBody() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(bulkIngestService.ingest(body)).thenReturn(new BulkIngestResult(1, 0, 1, List.of(), true));
+
+        ResponseEntity<BulkIngestResult> response = itemController.createItems(body);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void testGetItemById_Found() {
-        Item item = new Item(1L, "item1", "desc", "NEW", "a@b.com");
+        Item item = new Item(1L, "item1", "desc", ItemStatus.NEW, "a@b.com");
         when(itemService.findById(1L)).thenReturn(Optional.of(item));
 
-        ResponseEntity<Item> response = itemController.getItemById(1L);
+        ResponseEntity<Item> response = itemController.getItemById(1L, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(item);
     }
 
+    @Test
+    void testGetItemById_NotModified() {
+        Item item = new Item(1L, "item1", "desc", ItemStatus.NEW, "a@b.com");
+        item.setVersion(3L);
+        when(itemService.findById(1L)).thenReturn(Optional.of(item));
+
+        ResponseEntity<Item> response = itemController.getItemById(1L, "\"1-3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1-3\"");
+        assertThat(response.getBody()).isNull();
+    }
+
     @Test
     void testGetItemById_NotFound() {
         when(itemService.findById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Item> response = itemController.getItemById(1L);
+        ResponseEntity<Item> response = itemController.getItemById(1L, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @Test
     void testUpdateItem_Found() {
-        Item item = new Item(1L, "updated", "desc", "PROCESSED", "x@y.com");
+        Item item = new Item(1L, "updated", "desc", ItemStatus.PROCESSED, "x@y.com");
         when(itemService.findById(1L)).thenReturn(Optional.of(item));
         when(itemService.save(item)).thenReturn(item);
 
-        ResponseEntity<Item> response = itemController.updateItem(1L, item);
+        ResponseEntity<Item> response = itemController.updateItem(1L, item, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(item);
     }
 
+    @Test
+    void testUpdateItem_IfMatchCurrent() {
+        Item existing = new Item(1L, "item", "desc", ItemStatus.NEW, "x@y.com");
+        existing.setVersion(2L);
+        Item item = new Item(null, "updated", "desc", ItemStatus.NEW, "x@y.com");
+        when(itemService.findById(1L)).thenReturn(Optional.of(existing));
+        when(itemService.save(item)).thenReturn(item);
+
+        ResponseEntity<Item> response = itemController.updateItem(1L, item, "\"1-2\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(item.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void testUpdateItem_IfMatchStale() {
+        Item existing = new Item(1L, "item", "desc", ItemStatus.NEW, "x@y.com");
+        existing.setVersion(3L);
+        when(itemService.findById(1L)).thenReturn(Optional.of(existing));
+
+        ResponseEntity<Item> response = itemController.updateItem(1L, new Item(), "\"1-2\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(itemService, never()).save(any());
+    }
+
+    @Test
+    void testUpdateItem_ConcurrentChange() {
+        Item existing = new Item(1L, "item", "desc", ItemStatus.NEW, "x@y.com");
+        existing.setVersion(2L);
+        Item item = new Item();
+        when(itemService.findById(1L)).thenReturn(Optional.of(existing));
+        when(itemService.save(item)).thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        assertThat(itemController.updateItem(1L, item, "\"1-2\"").getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(itemController.updateItem(1L, item, null).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
     @Test
     void testUpdateItem_NotFound() {
         Item item = new Item();
         when(itemService.findById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Item> response = itemController.updateItem(1L, item);
+        ResponseEntity<Item> response = itemController.updateItem(1L, item, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void testPatchItem_Found() {
+        ItemPatch patch = new ItemPatch("renamed", null, null, null);
+        when(itemService.patch(1L, patch)).thenReturn(true);
+
+        assertThat(itemController.patchItem(1L, patch).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    @Test
+    void testPatchItem_NotFound() {
+        ItemPatch patch = new ItemPatch("renamed", null, null, null);
+        when(itemService.patch(1L, patch)).thenReturn(false);
+
+        assertThat(itemController.patchItem(1L, patch).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testPatchItem_InvalidEmail() {
+        ItemPatch patch = new ItemPatch(null, null, null, "not-an-email");
+        when(itemService.patch(1L, patch)).thenThrow(new IllegalArgumentException("Invalid email format"));
+
+        assertThat(itemController.patchItem(1L, patch).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void testDeleteItem_Found() {
-        Item item = new Item(1L, "item", "desc", "NEW", "email@test.com");
+        Item item = new Item(1L, "item", "desc", ItemStatus.NEW, "email@test.com");
         when(itemService.findById(1L)).thenReturn(Optional.of(item));
         doNothing().when(itemService).deleteById(1L);
 
@@ -122,4 +370,110 @@ class ItemControllerTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
+
+    @Test
+    void testProcessItemsInChunks() {
+        ProcessingReport report = new ProcessingReport(3, 0, 10, 300.0);
+        when(itemService.processItemsInChunks(2)).thenReturn(report);
+
+        ResponseEntity<ProcessingReport> response = itemController.processItemsInChunks(2);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(report);
+    }
+
+    @Test
+    void testProcessItems() {
+        List<Item> processed = List.of(new Item(1L, "item1", "desc", ItemStatus.PROCESSED, "a@b.com"));
+        when(itemService.processItemsAsync()).thenReturn(CompletableFuture.completedFuture(processed));
+
+        ResponseEntity<List<Item>> response = itemController.processItems().join();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(processed);
+    }
+
+    @Test
+    void testProcessItems_Saturated() {
+        when(itemService.processItemsAsync()).thenReturn(CompletableFuture.failedFuture(new ProcessingRejectedException(
+                "Item processing queue is full", HttpStatus.SERVICE_UNAVAILABLE, java.time.Duration.ofMillis(1500))));
+
+        ResponseEntity<List<Item>> response = itemController.processItems().join();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    @Test
+    void testProcessItemsInChunks_TooManyRuns() {
+        when(itemService.processItemsInChunks(2)).thenThrow(new ProcessingRejectedException(
+                "Too many processing runs in progress", HttpStatus.TOO_MANY_REQUESTS, java.time.Duration.ofSeconds(5)));
+
+        ResponseEntity<ProcessingReport> response = itemController.processItemsInChunks(2);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    @Test
+    void testProcessItemsInPipeline() {
+        ItemPipelineReport report = new ItemPipelineReport(new ProcessingReport(2, 0, 1, 2000.0),
+                List.of(new ItemPipelineStageStats("fetch", 1, 2, 0, 2000.0, 1, 0, 0)));
+        when(itemService.processItemsInPipeline()).thenReturn(report);
+
+        ResponseEntity<ItemPipelineReport> response = itemController.processItemsInPipeline();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(report);
+    }
+
+    @Test
+    void testProcessItemsInPipeline_TooManyRuns() {
+        when(itemService.processItemsInPipeline()).thenThrow(new ProcessingRejectedException(
+                "Too many processing runs in progress", HttpStatus.TOO_MANY_REQUESTS, java.time.Duration.ofSeconds(5)));
+
+        ResponseEntity<ItemPipelineReport> response = itemController.processItemsInPipeline();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    @Test
+    void testProcessItems_RejectedBeforeStarting() {
+        when(itemService.processItemsAsync()).thenThrow(new ProcessingRejectedException(
+                "Too many processing runs in progress", HttpStatus.TOO_MANY_REQUESTS, java.time.Duration.ofSeconds(5)));
+
+        ResponseEntity<List<Item>> response = itemController.processItems().join();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    @Test
+    void testProcessItemsInChunks_InvalidChunkSize() {
+        ResponseEntity<ProcessingReport> response = itemController.processItemsInChunks(0);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(itemService, never()).processItemsInChunks(anyInt());
+    }
+
+    @Test
+    void testProcessItemsStream() {
+        when(itemService.processItemsStreaming(eq(4), any()))
+                .thenReturn(CompletableFuture.completedFuture(new ProcessingReport(0, 0, 1, 0.0)));
+
+        ResponseEntity<SseEmitter> response = itemController.processItemsStream(4);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        verify(itemService).processItemsStreaming(eq(4), any(ItemProcessingListener.class));
+    }
+
+    @Test
+    void testProcessItemsStream_InvalidWindow() {
+        ResponseEntity<SseEmitter> response = itemController.processItemsStream(0);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(itemService, never()).processItemsStreaming(anyInt(), any());
+    }
 }
@@ -0,0 +1,123 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@DataJpaTest
+class ItemExportServiceTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ItemCache itemCache = new ItemCache(100, Duration.ofMinutes(1));
+
+    private ItemExportService exportService(int bufferSize) {
+        ItemStatusBuffer statusBuffer = new ItemStatusBuffer(jdbcTemplate, itemCache, false, 100, Duration.ofMinutes(1));
+        return new ItemExportService(jdbcTemplate, statusBuffer, bufferSize, 2, 100);
+    }
+
+    @Test
+    void testExportCsv_QuotesFieldsThatNeedItAndKeepsNullApartFromEmpty() throws IOException {
+        Item plain = itemRepository.saveAndFlush(new Item(null, "Chair", null, ItemStatus.NEW, "a@b.com"));
+        Item quoted = itemRepository.saveAndFlush(
+                new Item(null, "Table, \"oak\"", "two\nlines", ItemStatus.PROCESSED, "c@d.com"));
+        Item empty = itemRepository.saveAndFlush(new Item(null, "", "Lampe für Büro", ItemStatus.NEW, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService(1024).export(ItemExportFormat.CSV, Channels.newChannel(out));
+
+        assertThat(exported).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,version,status,name,description,email\r\n"
+                        + plain.getId() + ",0,NEW,Chair,,a@b.com\r\n"
+                        + quoted.getId() + ",0,PROCESSED,\"Table, \"\"oak\"\"\",\"two\nlines\",c@d.com\r\n"
+                        + empty.getId() + ",0,NEW,\"\",Lampe für Büro,\r\n");
+    }
+
+    @Test
+    void testExportBinary_RoundTripsThroughReaderAcrossManyBuffers() throws IOException {
+        List<Item> items = itemRepository.saveAllAndFlush(IntStream.range(0, 300)
+                .mapToObj(i -> new Item(null, "Item " + i + " ✓ 😀", i % 2 == 0 ? null : "Beschreibung " + i,
+                        i % 3 == 0 ? ItemStatus.PROCESSED : ItemStatus.NEW, "user" + i + "@example.com"))
+                .toList());
+        ItemExportService exportService = exportService(256);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(exportService.export(ItemExportFormat.BINARY, Channels.newChannel(out))).isEqualTo(300);
+        List<Item> read = ItemExportReader.readAll(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(read).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(items);
+        //the buffer is reused by the next export
+        exportService.export(ItemExportFormat.BINARY, Channels.newChannel(new ByteArrayOutputStream()));
+        assertThat(exportService.getBufferPool().getAllocated()).isEqualTo(1);
+        assertThat(exportService.getBufferPool().getPooled()).isEqualTo(1);
+    }
+
+    @Test
+    void testExportBinary_RecordLargerThanBuffer() throws IOException {
+        Item small = itemRepository.saveAndFlush(new Item(null, "Small", "S", ItemStatus.NEW, "a@b.com"));
+        Item large = itemRepository.saveAndFlush(new Item(null, "L".repeat(255), "D".repeat(255), ItemStatus.NEW, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService(128).export(ItemExportFormat.BINARY, Channels.newChannel(out));
+
+        assertThat(ItemExportReader.readAll(new ByteArrayInputStream(out.toByteArray())))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(small, large);
+    }
+
+    @Test
+    void testExport_ChannelFailureIsRethrownAndBufferReturned() throws IOException {
+        itemRepository.saveAllAndFlush(IntStream.range(0, 50)
+                .mapToObj(i -> new Item(null, "Item " + i, "Description " + i, ItemStatus.NEW, null))
+                .toList());
+        ItemExportService exportService = exportService(256);
+        WritableByteChannel closed = Channels.newChannel(new ByteArrayOutputStream());
+        closed.close();
+
+        assertThatThrownBy(() -> exportService.export(ItemExportFormat.CSV, closed))
+                .isInstanceOf(ClosedChannelException.class);
+        assertThat(exportService.getBufferPool().getPooled()).isEqualTo(1);
+    }
+
+    @Test
+    void testReader_RejectsTruncatedAndForeignInput() throws IOException {
+        itemRepository.saveAllAndFlush(IntStream.range(0, 10)
+                .mapToObj(i -> new Item(null, "Item " + i, null, ItemStatus.NEW, null))
+                .toList());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService(256).export(ItemExportFormat.BINARY, Channels.newChannel(out));
+        byte[] export = out.toByteArray();
+
+        //cut off in the middle of a record, and right before the trailer
+        assertThatThrownBy(() -> ItemExportReader.readAll(new ByteArrayInputStream(Arrays.copyOf(export, 100))))
+                .isInstanceOf(EOFException.class);
+        assertThatThrownBy(() -> ItemExportReader.readAll(
+                new ByteArrayInputStream(Arrays.copyOf(export, export.length - 12))))
+                .isInstanceOf(EOFException.class);
+        assertThatThrownBy(() -> ItemExportReader.readAll(
+                new ByteArrayInputStream("id,version\r\n".getBytes(StandardCharsets.US_ASCII))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a binary item export");
+    }
+}
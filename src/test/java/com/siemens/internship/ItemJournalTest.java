@@ -0,0 +1,201 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+//the journal restores through its own connections, so the test data must be committed rather than rolled back
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemJournalTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private final ItemCache itemCache = new ItemCache(100, Duration.ofMinutes(1));
+
+    private final List<ItemJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(ItemJournal::close);
+        itemRepository.deleteAllInBatch();
+    }
+
+    private ItemJournal openJournal(boolean enabled) throws IOException {
+        return openJournal(enabled, directory);
+    }
+
+    private ItemJournal openJournal(boolean enabled, Path directory) throws IOException {
+        ItemStatusBuffer statusBuffer = new ItemStatusBuffer(jdbcTemplate, itemCache, false, 100, Duration.ofMinutes(1));
+        ItemExportService exportService = new ItemExportService(jdbcTemplate, statusBuffer, 4096, 2, 100);
+        ItemJournal journal = new ItemJournal(jdbcTemplate, exportService, enabled, directory, Duration.ofHours(1),
+                DataSize.ofMegabytes(64));
+        journal.open();
+        journals.add(journal);
+        return journal;
+    }
+
+    private List<Item> saveItems(ItemJournal journal, int count) {
+        List<Item> saved = itemRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new Item(null, "Item " + i, i % 2 == 0 ? null : "Description " + i,
+                        ItemStatus.NEW, "user" + i + "@example.com"))
+                .toList());
+        journal.upsertAll(saved);
+        return saved;
+    }
+
+    /**
+     * Simulates a crash: the database is lost and only the journal files written so far remain.
+     * @return a copy of the journal directory, so the journal still running on the original cannot touch it
+     */
+    private Path crash() throws IOException {
+        Path copy = Files.createDirectory(directory.resolve("crashed"));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        itemRepository.deleteAllInBatch();
+        return copy;
+    }
+
+    private List<Item> storedItems() {
+        return itemRepository.findAll().stream().sorted(Comparator.comparing(Item::getId)).toList();
+    }
+
+    @Test
+    void testOpen_ReplaysLoggedChangesAfterCrash() throws IOException {
+        ItemJournal journal = openJournal(true);
+        List<Item> saved = saveItems(journal, 5);
+        itemRepository.deleteById(saved.get(0).getId());
+        journal.deleted(saved.get(0).getId());
+        itemRepository.patch(saved.get(1).getId(), "Renamed", null, ItemStatus.PROCESSED, null);
+        journal.updated(saved.get(1).getId());
+        List<Item> expected = storedItems();
+
+        openJournal(true, crash());
+
+        assertThat(storedItems()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+        assertThat(storedItems().get(0).getName()).isEqualTo("Renamed");
+        //new items don't reuse restored IDs
+        Item added = itemRepository.save(new Item(null, "New", null, ItemStatus.NEW, null));
+        assertThat(added.getId()).isGreaterThan(saved.get(4).getId());
+    }
+
+    @Test
+    void testSnapshot_ReplacesOlderLogAndIsRestoredWithLaterChanges() throws IOException {
+        ItemJournal journal = openJournal(true);
+        saveItems(journal, 100);
+        //processing status changes are not logged, the snapshot makes them durable
+        itemRepository.updateStatusByIds(itemRepository.findAllIds(), ItemStatus.PROCESSED);
+
+        journal.snapshot();
+        saveItems(journal, 10);
+        List<Item> expected = storedItems();
+
+        assertThat(fileNames()).containsExactly("changes-2.log", "snapshot-2.bin");
+        openJournal(true, crash());
+
+        assertThat(storedItems()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+        assertThat(storedItems()).filteredOn(item -> item.getStatus() == ItemStatus.PROCESSED).hasSize(100);
+    }
+
+    @Test
+    void testOpen_StopsAtTornRecord() throws IOException {
+        ItemJournal journal = openJournal(true);
+        List<Item> saved = saveItems(journal, 3);
+        Path crashed = crash();
+        //a record whose length points past the end of the file, as an interrupted write leaves it
+        Files.write(crashed.resolve("changes-1.log"), new byte[]{0, 0, 1, 0, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        openJournal(true, crashed);
+
+        assertThat(storedItems()).extracting(Item::getId)
+                .containsExactlyElementsOf(saved.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void testClose_TakesFinalSnapshot() throws IOException {
+        ItemJournal journal = openJournal(true);
+        saveItems(journal, 20);
+        List<Item> expected = storedItems();
+
+        journal.close();
+
+        assertThat(fileNames()).containsExactly("changes-2.log", "snapshot-2.bin");
+        assertThat(Files.size(directory.resolve("changes-2.log"))).isZero();
+        assertThatThrownBy(() -> journal.deleted(expected.get(0).getId())).isInstanceOf(IllegalStateException.class);
+        itemRepository.deleteAllInBatch();
+        openJournal(true);
+        assertThat(storedItems()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testUpsert_ConcurrentWritersShareFsyncs() throws Exception {
+        ItemJournal journal = openJournal(true);
+        List<Item> saved = saveItems(journal, 1);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture.allOf(IntStream.range(0, 400)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> journal.upsert(saved.get(0)), writers))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            writers.shutdown();
+        }
+
+        assertThat(journal.getSyncedRecords()).isEqualTo(401);
+        assertThat(journal.getSyncs()).isLessThanOrEqualTo(401);
+    }
+
+    @Test
+    void testOpen_RefusesNonEmptyDatabase() {
+        itemRepository.save(new Item(null, "Existing", null, ItemStatus.NEW, null));
+
+        assertThatThrownBy(() -> openJournal(true)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testDisabled_WritesNothing() throws IOException {
+        ItemJournal journal = openJournal(false);
+        saveItems(journal, 3);
+        journal.deleted(1L);
+        journal.close();
+
+        assertThat(fileNames()).isEmpty();
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+}
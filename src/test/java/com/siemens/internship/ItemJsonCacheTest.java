@@ -0,0 +1,118 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+class ItemJsonCacheTest {
+    private static final Type ITEM_LIST = new TypeReference<List<Item>>() { }.getType();
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper());
+
+    private static Item item(long id, long version, ItemStatus status) {
+        Item item = new Item(id, "Item " + id, "Description", status, "user" + id + "@example.com");
+        item.setVersion(version);
+        return item;
+    }
+
+    @Test
+    void testToJson_ReusesEncodingOfSameVersionAndStatus() throws Exception {
+        ItemJsonCache cache = new ItemJsonCache(objectMapper, true, DataSize.ofMegabytes(1));
+
+        byte[] first = cache.toJson(item(1, 0, ItemStatus.NEW));
+        byte[] second = cache.toJson(item(1, 0, ItemStatus.NEW));
+
+        assertThat(second).isSameAs(first).isEqualTo(objectMapper.writeValueAsBytes(item(1, 0, ItemStatus.NEW)));
+        verify(objectMapper, times(2)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void testToJson_NeverServesOtherVersionOrStatus() throws Exception {
+        ItemJsonCache cache = new ItemJsonCache(objectMapper, true, DataSize.ofMegabytes(1));
+        cache.toJson(item(1, 0, ItemStatus.NEW));
+
+        //a status still buffered for write-behind keeps the version
+        Map<?, ?> overlaid = objectMapper.readValue(cache.toJson(item(1, 0, ItemStatus.PROCESSED)), Map.class);
+        Map<?, ?> updated = objectMapper.readValue(cache.toJson(item(1, 1, ItemStatus.PROCESSED)), Map.class);
+
+        assertThat(overlaid.get("status")).isEqualTo("PROCESSED");
+        assertThat(updated.get("version")).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidate_DropsEntry() throws Exception {
+        ItemJsonCache cache = new ItemJsonCache(objectMapper, true, DataSize.ofMegabytes(1));
+        byte[] first = cache.toJson(item(1, 0, ItemStatus.NEW));
+
+        cache.invalidate(1L);
+
+        assertThat(cache.toJson(item(1, 0, ItemStatus.NEW))).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void testToJson_StaysWithinMemoryBudget() throws Exception {
+        ItemJsonCache cache = new ItemJsonCache(objectMapper, true, DataSize.ofKilobytes(4));
+
+        for (long id = 1; id <= 1000; id++) {
+            cache.toJson(item(id, 0, ItemStatus.NEW));
+        }
+
+        assertThat(cache.weightedSize()).isPositive().isLessThanOrEqualTo(4096);
+    }
+
+    @Test
+    void testToJson_DisabledAlwaysSerializes() throws Exception {
+        ItemJsonCache cache = new ItemJsonCache(objectMapper, false, DataSize.ofMegabytes(1));
+
+        byte[] first = cache.toJson(item(1, 0, ItemStatus.NEW));
+
+        assertThat(cache.toJson(item(1, 0, ItemStatus.NEW))).isNotSameAs(first).isEqualTo(first);
+        assertThat(cache.weightedSize()).isZero();
+    }
+
+    @Test
+    void testConverter_WritesListLikeJackson() throws Exception {
+        ItemJsonHttpMessageConverter converter =
+                new ItemJsonHttpMessageConverter(new ItemJsonCache(objectMapper, true, DataSize.ofMegabytes(1)));
+        List<Item> items = new ArrayList<>(LongStream.rangeClosed(1, 3).mapToObj(id -> item(id, id, ItemStatus.NEW)).toList());
+        items.add(null);
+
+        MockHttpOutputMessage list = new MockHttpOutputMessage();
+        converter.write(items, ITEM_LIST, MediaType.APPLICATION_JSON, list);
+        MockHttpOutputMessage single = new MockHttpOutputMessage();
+        converter.write(items.get(0), Item.class, MediaType.APPLICATION_JSON, single);
+
+        assertThat(list.getBodyAsBytes()).isEqualTo(objectMapper.writeValueAsBytes(items));
+        assertThat(single.getBodyAsBytes()).isEqualTo(objectMapper.writeValueAsBytes(items.get(0)));
+        assertThat(single.getHeaders().getContentLength()).isEqualTo(single.getBodyAsBytes().length);
+        assertThat(Arrays.asList(list.getHeaders().getContentType(), single.getHeaders().getContentType()))
+                .containsOnly(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void testConverter_OnlyWritesItems() {
+        ItemJsonHttpMessageConverter converter =
+                new ItemJsonHttpMessageConverter(new ItemJsonCache(objectMapper, true, DataSize.ofMegabytes(1)));
+        Type stringList = new TypeReference<List<String>>() { }.getType();
+
+        assertThat(converter.canWrite(ITEM_LIST, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Item.class, Item.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(ItemPage.class, ItemPage.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(stringList, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(Item.class, Item.class, MediaType.APPLICATION_XML)).isFalse();
+        assertThat(converter.canRead(Item.class, null, MediaType.APPLICATION_JSON)).isFalse();
+    }
+}
@@ -0,0 +1,135 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Two application nodes, each a full Spring context with its own connection pool, sharing one file-based H2 database.
+ */
+class ItemLeaseManagerTest {
+
+    @TempDir
+    static Path databaseDir;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private ItemRepository itemRepository;
+
+    @BeforeAll
+    static void startNodes() {
+        String url = "jdbc:h2:file:" + databaseDir.resolve("items").toAbsolutePath() + ";DB_CLOSE_DELAY=-1";
+        nodeA = startNode(url, "node-a");
+        nodeB = startNode(url, "node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(String url, String nodeId) {
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + url,
+                        "spring.jpa.show-sql=false",
+                        "item.processing.delay=2ms",
+                        "item.processing.lease.node-id=" + nodeId,
+                        "item.processing.lease.chunk-size=10",
+                        "item.processing.window=4")
+                .run();
+    }
+
+    @BeforeEach
+    void setup() {
+        itemRepository = nodeA.getBean(ItemRepository.class);
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testConcurrentNodesSplitTheWork() throws Exception {
+        List<Long> ids = seed(200);
+
+        CompletableFuture<List<Item>> runA = nodeA.getBean(ItemService.class).processItemsAsync();
+        CompletableFuture<List<Item>> runB = nodeB.getBean(ItemService.class).processItemsAsync();
+        List<Long> processedByA = runA.get(30, TimeUnit.SECONDS).stream().map(Item::getId).toList();
+        List<Long> processedByB = runB.get(30, TimeUnit.SECONDS).stream().map(Item::getId).toList();
+
+        Set<Long> overlap = new HashSet<>(processedByA);
+        overlap.retainAll(processedByB);
+        assertThat(overlap).isEmpty();
+        assertThat(processedByA).isNotEmpty();
+        assertThat(processedByB).isNotEmpty();
+        assertThat(processedByA.size() + processedByB.size()).isEqualTo(ids.size());
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.NEW)).isEmpty();
+    }
+
+    @Test
+    void testExpiredLeasesOfCrashedNodeAreReclaimed() throws Exception {
+        List<Long> ids = seed(20);
+        Instant now = Instant.now();
+        //a node that crashed a while ago, and one that is still alive and holds a valid lease
+        itemRepository.claim(ids.subList(0, 10), ItemStatus.NEW, "crashed/1", now.minusSeconds(600), now.minusSeconds(300));
+        itemRepository.claim(ids.subList(10, 15), ItemStatus.NEW, "alive/1", now, now.plusSeconds(300));
+
+        List<Long> processed = nodeB.getBean(ItemService.class).processItemsAsync().get(30, TimeUnit.SECONDS)
+                .stream().map(Item::getId).toList();
+
+        assertThat(processed).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(0, 20).filter(i -> i < 10 || i >= 15).mapToObj(ids::get).toList());
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.NEW)).containsExactlyElementsOf(ids.subList(10, 15));
+    }
+
+    @Test
+    void testClaimNeverHandsOutTheSameItemTwice() throws Exception {
+        List<Long> ids = seed(300);
+        ItemLeaseManager managerA = nodeA.getBean(ItemLeaseManager.class);
+        ItemLeaseManager managerB = nodeB.getBean(ItemLeaseManager.class);
+        String ownerA = managerA.newOwner();
+        String ownerB = managerB.newOwner();
+
+        CompletableFuture<Set<Long>> claimsA = CompletableFuture.supplyAsync(() -> claimAll(managerA, ownerA));
+        CompletableFuture<Set<Long>> claimsB = CompletableFuture.supplyAsync(() -> claimAll(managerB, ownerB));
+        Set<Long> claimedByA = claimsA.get(30, TimeUnit.SECONDS);
+        Set<Long> claimedByB = claimsB.get(30, TimeUnit.SECONDS);
+
+        Set<Long> overlap = new HashSet<>(claimedByA);
+        overlap.retainAll(claimedByB);
+        assertThat(overlap).isEmpty();
+        assertThat(claimedByA.size() + claimedByB.size()).isEqualTo(ids.size());
+    }
+
+    private static Set<Long> claimAll(ItemLeaseManager manager, String owner) {
+        Set<Long> claimed = new HashSet<>();
+        List<Long> chunk;
+        while (!(chunk = manager.claim(owner)).isEmpty()) {
+            claimed.addAll(chunk);
+        }
+        return claimed;
+    }
+
+    private List<Long> seed(int count) {
+        return nodeA.getBean(ItemService.class).saveAll(IntStream.range(0, count)
+                        .mapToObj(i -> new Item(null, "Item" + i, "desc", ItemStatus.NEW, "item" + i + "@example.com"))
+                        .toList())
+                .stream().map(Item::getId).sorted().toList();
+    }
+}
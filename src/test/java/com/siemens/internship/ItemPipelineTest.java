@@ -0,0 +1,157 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the pipeline in a full context with two additional transform stages registered as beans.
+ */
+class ItemPipelineTest {
+
+    private static ConfigurableApplicationContext context;
+
+    private ItemRepository itemRepository;
+
+    private record OrderedStage(String name, int order, UnaryOperator<Item> function)
+            implements ItemTransformStage, Ordered {
+
+        @Override
+        public Item transform(Item item) {
+            return function.apply(item);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getParallelism() {
+            return 2;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    @BeforeAll
+    static void start() {
+        //registered in reverse order, so the pipeline has to sort them
+        context = new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(applicationContext -> {
+                    GenericApplicationContext generic = (GenericApplicationContext) applicationContext;
+                    generic.registerBean("upperCaseStage", ItemTransformStage.class, () -> new OrderedStage("upper-case", 2,
+                            item -> {
+                                item.setName(item.getName().toUpperCase(Locale.ROOT));
+                                return item;
+                            }));
+                    generic.registerBean("rejectStage", ItemTransformStage.class, () -> new OrderedStage("reject", 1,
+                            item -> {
+                                if (item.getName().startsWith("reject")) {
+                                    throw new IllegalArgumentException("Rejected " + item.getId());
+                                }
+                                return item;
+                            }));
+                })
+                //arguments, since default properties would lose against application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:pipeline;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--item.processing.delay=1ms",
+                        "--item.processing.lease.chunk-size=20",
+                        "--item.pipeline.enrich.parallelism=4",
+                        "--item.pipeline.persist.parallelism=2",
+                        "--item.pipeline.persist.batch-size=16",
+                        "--item.pipeline.queue-capacity=8");
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @BeforeEach
+    void setup() {
+        itemRepository = context.getBean(ItemRepository.class);
+        itemRepository.deleteAllInBatch();
+    }
+
+    private List<Item> seed(int count, String prefix) {
+        return itemRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new Item(null, prefix + i, "Description " + i, ItemStatus.NEW, "user" + i + "@example.com"))
+                .toList());
+    }
+
+    @Test
+    void testStages_IncludeTransformBeansInOrder() {
+        assertThat(context.getBean(ItemPipeline.class).getStageNames())
+                .containsExactly("fetch", "transform", "reject", "upper-case", "enrich", "persist");
+    }
+
+    @Test
+    void testRun_PassesEveryItemThroughAllStages() {
+        seed(150, "item ");
+
+        ItemPipelineReport report = context.getBean(ItemService.class).processItemsInPipeline();
+
+        assertThat(report.summary().processed()).isEqualTo(150);
+        assertThat(report.summary().failed()).isZero();
+        assertThat(report.stages()).allSatisfy(stage -> {
+            assertThat(stage.processed()).isEqualTo(150);
+            assertThat(stage.peakQueueDepth()).isLessThanOrEqualTo(stage.queueCapacity());
+        });
+        assertThat(report.stages()).filteredOn(stage -> !stage.name().equals("fetch"))
+                .allSatisfy(stage -> assertThat(stage.queueCapacity()).isEqualTo(8));
+        assertThat(itemRepository.findAll()).allSatisfy(item -> {
+            assertThat(item.getStatus()).isEqualTo(ItemStatus.PROCESSED);
+            assertThat(item.getName()).startsWith("ITEM ");
+            assertThat(item.getVersion()).isEqualTo(1);
+            assertThat(item.getClaimedBy()).isNull();
+        });
+        //the cached view reflects the persisted item
+        Item first = itemRepository.findAll().get(0);
+        assertThat(context.getBean(ItemService.class).findById(first.getId()))
+                .hasValueSatisfying(item -> assertThat(item.getName()).isEqualTo(first.getName()));
+    }
+
+    @Test
+    void testRun_FailedItemsStayPendingAndUnclaimed() {
+        seed(30, "item ");
+        List<Item> rejected = seed(10, "reject ");
+
+        ItemPipelineReport report = context.getBean(ItemPipeline.class).run();
+
+        assertThat(report.summary().processed()).isEqualTo(30);
+        assertThat(report.summary().failed()).isEqualTo(10);
+        assertThat(report.stages()).filteredOn(stage -> stage.name().equals("reject"))
+                .singleElement().satisfies(stage -> assertThat(stage.failed()).isEqualTo(10));
+        assertThat(itemRepository.findAllById(rejected.stream().map(Item::getId).toList())).allSatisfy(item -> {
+            assertThat(item.getStatus()).isEqualTo(ItemStatus.NEW);
+            assertThat(item.getClaimedBy()).isNull();
+        });
+    }
+
+    @Test
+    void testRun_NothingPending() {
+        ItemPipelineReport report = context.getBean(ItemPipeline.class).run();
+
+        assertThat(report.summary().processed()).isZero();
+        assertThat(report.stages()).hasSize(6).allSatisfy(stage -> assertThat(stage.processed()).isZero());
+    }
+}
@@ -0,0 +1,231 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+class ItemProcessingExecutorTest {
+
+    @Test
+    void testSubmit_LimitsConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 8, 2, 100, Duration.ofSeconds(1))) {
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, 20)
+                    .mapToObj(i -> executor.submit(() -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(10);
+                        running.decrementAndGet();
+                        return i;
+                    }))
+                    .toList();
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testSubmit_ForkJoinMode() throws Exception {
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FORK_JOIN, 4, 4, 100, Duration.ofSeconds(1))) {
+            assertThat(executor.submit(() -> "done").get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        }
+    }
+
+    @Test
+    void testCreate_VirtualModeMatchesRuntime() throws Exception {
+        if (Runtime.version().feature() >= 21) {
+            try (ItemProcessingExecutor executor =
+                         ItemProcessingExecutor.create(ProcessingExecutorMode.VIRTUAL, 0, 4, 100, Duration.ofSeconds(1))) {
+                assertThat(executor.submit(() -> "done").get(5, TimeUnit.SECONDS)).isEqualTo("done");
+            }
+        } else {
+            assertThatThrownBy(() -> ItemProcessingExecutor.create(ProcessingExecutorMode.VIRTUAL, 0, 4, 100, Duration.ofSeconds(1)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Java 21");
+        }
+    }
+
+    @Test
+    void testSubmit_PropagatesFailure() {
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 1, 1, 100, Duration.ofSeconds(1))) {
+            CompletableFuture<Object> future = executor.submit(() -> {
+                throw new RuntimeException("boom");
+            });
+
+            assertThatThrownBy(future::join).hasMessageContaining("boom");
+            assertThat(executor.getActiveTasks()).isZero();
+        }
+    }
+
+    @Test
+    void testBindTo_ReportsInFlightQueuedAndActiveTasks() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 2, 1, 100, Duration.ofSeconds(1))) {
+            executor.bindTo(registry);
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, 3)
+                    .mapToObj(i -> executor.submit(() -> {
+                        started.countDown();
+                        await(release);
+                        return i;
+                    }))
+                    .toList();
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThat(registry.get("item.processing.executor.inflight").gauge().value()).isEqualTo(3);
+            assertThat(registry.get("item.processing.executor.active").gauge().value()).isEqualTo(1);
+            assertThat(registry.get("item.processing.executor.queued").gauge().value()).isEqualTo(2);
+            assertThat(registry.get("item.processing.executor.limit").gauge().value()).isEqualTo(1);
+
+            release.countDown();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+            assertThat(registry.get("item.processing.executor.inflight").gauge().value()).isZero();
+        }
+    }
+
+    @Test
+    void testSubmit_RejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 1, 1, 2, Duration.ofSeconds(1))) {
+            CompletableFuture<String> running = executor.submit(() -> {
+                await(release);
+                return "first";
+            });
+            CompletableFuture<String> queued = executor.submit(() -> "second");
+
+            assertThatThrownBy(() -> executor.submit(() -> "third"))
+                    .isInstanceOf(java.util.concurrent.RejectedExecutionException.class)
+                    .hasMessage("Item processing queue is full");
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+            assertThat(executor.submit(() -> "later").get(5, TimeUnit.SECONDS)).isEqualTo("later");
+        }
+    }
+
+    @Test
+    void testSubmitWindowed_KeepsAtMostWindowInFlight() throws Exception {
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Long> ids = LongStream.rangeClosed(1, 50).boxed().toList();
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 8, 8, 5, Duration.ofSeconds(1))) {
+            ProcessingReport report = executor.submitWindowed(ids, 5, id -> {
+                maxInFlight.accumulateAndGet(executor.getInFlightTasks(), Math::max);
+                sleep(1);
+                return new Item(id, "A", "desc", ItemStatus.PROCESSED, "a@b.com");
+            }, new ItemProcessingListener() {
+                @Override
+                public void onProcessed(Item item) {
+                }
+
+                @Override
+                public void onFailed(Long itemId, Throwable error) {
+                }
+            }).get(5, TimeUnit.SECONDS);
+
+            assertThat(report.processed()).isEqualTo(50);
+        }
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void testSubmitWindowed_StalledListenerDoesNotHoldProcessingThreads() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> ids = LongStream.rangeClosed(1, 20).boxed().toList();
+        try (ItemProcessingExecutor executor =
+                     ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 1, 1, 100, Duration.ofSeconds(1))) {
+            CompletableFuture<ProcessingReport> run = executor.submitWindowed(ids, 4,
+                    id -> new Item(id, "A", "desc", ItemStatus.PROCESSED, "a@b.com"), new ItemProcessingListener() {
+                        @Override
+                        public void onProcessed(Item item) {
+                            stalled.countDown();
+                            await(release);
+                        }
+
+                        @Override
+                        public void onFailed(Long itemId, Throwable error) {
+                        }
+                    });
+            assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+            //the only processing thread is free for other work while the listener blocks
+            assertThat(executor.submit(() -> "other").get(5, TimeUnit.SECONDS)).isEqualTo("other");
+
+            release.countDown();
+            assertThat(run.get(5, TimeUnit.SECONDS).processed()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    void testClose_StopsDeliveryOfWindowedRuns() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        List<Long> ids = LongStream.rangeClosed(1, 20).boxed().toList();
+        ItemProcessingExecutor executor =
+                ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 1, 1, 100, Duration.ofSeconds(1));
+        CompletableFuture<ProcessingReport> run = executor.submitWindowed(ids, 4,
+                id -> new Item(id, "A", "desc", ItemStatus.PROCESSED, "a@b.com"), new ItemProcessingListener() {
+                    @Override
+                    public void onProcessed(Item item) {
+                        stalled.countDown();
+                        //returns once close() interrupts the delivery thread
+                        await(new CountDownLatch(1));
+                    }
+
+                    @Override
+                    public void onFailed(Long itemId, Throwable error) {
+                    }
+                });
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        executor.close();
+
+        assertThat(run).isCompletedExceptionally();
+        assertThat(executor.submitWindowed(ids, 4, id -> null, null)).isCompletedExceptionally();
+    }
+
+    @Test
+    void testClose_RejectsNewTasks() {
+        ItemProcessingExecutor executor =
+                ItemProcessingExecutor.create(ProcessingExecutorMode.FIXED, 1, 1, 100, Duration.ofSeconds(1));
+        executor.close();
+
+        assertThatThrownBy(() -> executor.submit(() -> "late"))
+                .isInstanceOf(java.util.concurrent.RejectedExecutionException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.siemens.internship;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 @DataJpaTest
@@ -16,8 +20,8 @@ public class ItemRepositoryTest {
 
     @Test
     public void testFindAllIds() {
-        Item item1 = new Item(null, "Item1", "desc", "NEW", "item1@example.com");
-        Item item2 = new Item(null, "Item2", "desc", "NEW", "item2@example.com");
+        Item item1 = new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com");
+        Item item2 = new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com");
 
         itemRepository.save(item1);
         itemRepository.save(item2);
@@ -26,4 +30,204 @@ public class ItemRepositoryTest {
 
         assertThat(ids).containsExactlyInAnyOrder(item1.getId(), item2.getId());
     }
+
+    @Test
+    public void testSaveAllAssignsSequenceIds() {
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"),
+                new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com")));
+
+        assertThat(saved).extracting(Item::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(itemRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFindIdsByStatusAfter() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.PROCESSED, "item2@example.com"));
+        Item item3 = itemRepository.save(new Item(null, "Item3", "desc", ItemStatus.NEW, "item3@example.com"));
+        Item item4 = itemRepository.save(new Item(null, "Item4", "desc", ItemStatus.NEW, "item4@example.com"));
+
+        List<Long> firstPage = itemRepository.findIdsByStatusAfter(ItemStatus.NEW, Long.MIN_VALUE, PageRequest.of(0, 2));
+        List<Long> secondPage = itemRepository.findIdsByStatusAfter(ItemStatus.NEW, firstPage.get(1), PageRequest.of(0, 2));
+
+        assertThat(firstPage).containsExactly(item1.getId(), item3.getId());
+        assertThat(secondPage).containsExactly(item4.getId());
+    }
+
+    @Test
+    public void testFindIdsByStatus() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.PROCESSED, "item2@example.com"));
+
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.NEW)).containsExactly(item1.getId());
+    }
+
+    @Test
+    public void testCountByStatus() {
+        itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.PROCESSED, "item2@example.com"));
+        itemRepository.save(new Item(null, "Item3", "desc", null, "item3@example.com"));
+
+        assertThat(itemRepository.countByStatus())
+                .extracting(StatusCount::getStatus, StatusCount::getCount)
+                .containsExactlyInAnyOrder(tuple(ItemStatus.NEW, 2L),
+                        tuple(ItemStatus.PROCESSED, 1L));
+    }
+
+    @Test
+    public void testFindPageAfter() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Item item2 = itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+
+        List<Item> page = itemRepository.findPageAfter(item1.getId(), PageRequest.of(0, 10));
+
+        assertThat(page).extracting(Item::getId).containsExactly(item2.getId());
+    }
+
+    @Test
+    public void testStreamAll() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Item item2 = itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            assertThat(items.map(Item::getId).toList()).containsExactly(item1.getId(), item2.getId());
+        }
+    }
+
+    @Test
+    public void testUpdateStatusByIds() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Item item2 = itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+
+        int updated = itemRepository.updateStatusByIds(List.of(item1.getId()), ItemStatus.PROCESSED);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(itemRepository.findAll())
+                .filteredOn(item -> ItemStatus.PROCESSED.equals(item.getStatus()))
+                .extracting(Item::getId)
+                .containsExactly(item1.getId());
+    }
+
+    @Test
+    public void testPatch_KeepsUnsuppliedFields() {
+        Item item = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.PROCESSED, "item1@example.com"));
+
+        int updated = itemRepository.patch(item.getId(), "renamed", null, ItemStatus.NEW, null);
+
+        Item patched = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(updated).isEqualTo(1);
+        assertThat(patched.getName()).isEqualTo("renamed");
+        assertThat(patched.getDescription()).isEqualTo("desc");
+        assertThat(patched.getStatus()).isEqualTo(ItemStatus.NEW);
+        assertThat(patched.getEmail()).isEqualTo("item1@example.com");
+    }
+
+    @Test
+    public void testPatch_MissingItem() {
+        assertThat(itemRepository.patch(-1L, "renamed", null, null, null)).isZero();
+    }
+
+    @Test
+    public void testUpdateStatus() {
+        Item item = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+
+        assertThat(itemRepository.updateStatus(item.getId(), ItemStatus.PROCESSED)).isEqualTo(1);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStatus()).isEqualTo(ItemStatus.PROCESSED);
+    }
+
+    @Test
+    public void testUpdateStatus_OnlyOnUnchangedVersion() {
+        Item item = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        long version = item.getVersion();
+        itemRepository.patch(item.getId(), "renamed", null, null, null);
+
+        assertThat(itemRepository.updateStatus(item.getId(), ItemStatus.PROCESSED, version)).isZero();
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStatus()).isEqualTo(ItemStatus.NEW);
+
+        assertThat(itemRepository.updateStatus(item.getId(), ItemStatus.PROCESSED, version + 1)).isEqualTo(1);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getVersion()).isEqualTo(version + 2);
+    }
+
+    @Test
+    public void testBulkUpdatesIncrementVersion() {
+        Item item = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        long initialVersion = item.getVersion();
+
+        itemRepository.updateStatus(item.getId(), ItemStatus.PROCESSED);
+        itemRepository.patch(item.getId(), "renamed", null, null, null);
+
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getVersion()).isEqualTo(initialVersion + 2);
+    }
+
+    @Test
+    public void testFingerprintChangesOnEveryWrite() {
+        Item item = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        String initial = ETags.of(itemRepository.fingerprint());
+
+        itemRepository.updateStatus(item.getId(), ItemStatus.PROCESSED);
+        String afterUpdate = ETags.of(itemRepository.fingerprint());
+        itemRepository.deleteById(item.getId());
+        itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+        String afterReplace = ETags.of(itemRepository.fingerprint());
+
+        assertThat(List.of(initial, afterUpdate, afterReplace)).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void testClaimSkipsItemsLeasedByOthers() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Item item2 = itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+        itemRepository.save(new Item(null, "Item3", "desc", ItemStatus.PROCESSED, "item3@example.com"));
+        Instant now = Instant.now();
+
+        List<Long> candidates = itemRepository.findClaimableIds(ItemStatus.NEW, Long.MIN_VALUE, now, PageRequest.of(0, 10));
+        int claimedByA = itemRepository.claim(List.of(item1.getId()), ItemStatus.NEW, "a/1", now, now.plusSeconds(60));
+        int claimedByB = itemRepository.claim(candidates, ItemStatus.NEW, "b/1", now, now.plusSeconds(60));
+
+        assertThat(candidates).containsExactly(item1.getId(), item2.getId());
+        assertThat(claimedByA).isEqualTo(1);
+        assertThat(claimedByB).isEqualTo(1);
+        assertThat(itemRepository.findIdsClaimedBy("b/1", candidates)).containsExactly(item2.getId());
+        assertThat(itemRepository.findClaimableIds(ItemStatus.NEW, Long.MIN_VALUE, now, PageRequest.of(0, 10))).isEmpty();
+        assertThat(itemRepository.findById(item1.getId()).orElseThrow().getVersion()).isEqualTo(item1.getVersion());
+    }
+
+    @Test
+    public void testExpiredAndReleasedLeasesAreClaimableAgain() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Item item2 = itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+        Instant now = Instant.now();
+        itemRepository.claim(List.of(item1.getId()), ItemStatus.NEW, "crashed/1", now.minusSeconds(120), now.minusSeconds(60));
+        itemRepository.claim(List.of(item2.getId()), ItemStatus.NEW, "stopped/1", now, now.plusSeconds(60));
+
+        assertThat(itemRepository.findClaimableIds(ItemStatus.NEW, Long.MIN_VALUE, now, PageRequest.of(0, 10))).containsExactly(item1.getId());
+
+        assertThat(itemRepository.releaseClaims("stopped/1", ItemStatus.NEW)).isEqualTo(1);
+        assertThat(itemRepository.findClaimableIds(ItemStatus.NEW, Long.MIN_VALUE, now, PageRequest.of(0, 10)))
+                .containsExactly(item1.getId(), item2.getId());
+    }
+
+    @Test
+    public void testFindClaimableIdsAfterSkipsEarlierItems() {
+        Item item1 = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Item item2 = itemRepository.save(new Item(null, "Item2", "desc", ItemStatus.NEW, "item2@example.com"));
+        itemRepository.save(new Item(null, "Item3", "desc", ItemStatus.FAILED, "item3@example.com"));
+
+        assertThat(itemRepository.findClaimableIds(ItemStatus.NEW, item1.getId(), Instant.now(), PageRequest.of(0, 10)))
+                .containsExactly(item2.getId());
+    }
+
+    @Test
+    public void testUpdateStatusClearsLease() {
+        Item item = itemRepository.save(new Item(null, "Item1", "desc", ItemStatus.NEW, "item1@example.com"));
+        Instant now = Instant.now();
+        itemRepository.claim(List.of(item.getId()), ItemStatus.NEW, "a/1", now, now.plusSeconds(60));
+
+        itemRepository.updateStatus(item.getId(), ItemStatus.PROCESSED);
+
+        Item reloaded = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(reloaded.getClaimedBy()).isNull();
+        assertThat(reloaded.getLeaseExpiresAt()).isNull();
+    }
 }
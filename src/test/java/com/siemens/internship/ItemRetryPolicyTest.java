@@ -0,0 +1,41 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+class ItemRetryPolicyTest {
+
+    private final ItemRetryPolicy policy = new ItemRetryPolicy(3, Duration.ofMillis(100), Duration.ofMillis(300));
+
+    @Test
+    void testIsTransient() {
+        assertThat(policy.isTransient(new CannotAcquireLockException("Lock timeout"))).isTrue();
+        assertThat(policy.isTransient(new CannotCreateTransactionException("No connection"))).isTrue();
+        assertThat(policy.isTransient(new RuntimeException(new SQLTransientConnectionException("Pool exhausted")))).isTrue();
+        assertThat(policy.isTransient(new RuntimeException("Item not found"))).isFalse();
+        assertThat(policy.isTransient(new DataIntegrityViolationException("Duplicate key"))).isFalse();
+    }
+
+    @Test
+    void testBackoffGrowsExponentiallyUpToTheCap() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(policy.backoff(1)).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+            assertThat(policy.backoff(2)).isBetween(Duration.ofMillis(100), Duration.ofMillis(200));
+            assertThat(policy.backoff(3)).isBetween(Duration.ofMillis(150), Duration.ofMillis(300));
+            assertThat(policy.backoff(40)).isBetween(Duration.ofMillis(150), Duration.ofMillis(300));
+        }
+    }
+
+    @Test
+    void testInvalidMaxAttempts() {
+        assertThatThrownBy(() -> new ItemRetryPolicy(0, Duration.ofMillis(1), Duration.ofMillis(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
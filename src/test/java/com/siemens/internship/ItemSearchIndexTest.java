@@ -0,0 +1,114 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex(null);
+
+    @BeforeEach
+    void setup() {
+        index.index(item(1L, 0L, "Red Apple", "Fresh fruit from the orchard"));
+        index.index(item(2L, 0L, "Green apple", "Sour fruit"));
+        index.index(item(3L, 0L, "Apricot jam", "Made from fresh apricots"));
+        index.index(item(4L, 0L, "Banana", null));
+    }
+
+    @Test
+    void testTokenize() {
+        assertThat(ItemSearchIndex.tokenize("Fresh-Fruit, from the ORCHARD 42!"))
+                .containsExactly("fresh", "fruit", "from", "the", "orchard", "42");
+        assertThat(ItemSearchIndex.tokenize(null)).isEmpty();
+        assertThat(ItemSearchIndex.tokenize("Äpfel über Straße")).containsExactly("äpfel", "über", "straße");
+    }
+
+    @Test
+    void testSearch_ExactTermsAreCaseInsensitiveAndCombinedWithAnd() {
+        assertThat(search("APPLE")).containsExactly(1L, 2L);
+        assertThat(search("apple fresh")).containsExactly(1L);
+        assertThat(search("apple missing")).isEmpty();
+        assertThat(search("fruit")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testSearch_Prefixes() {
+        assertThat(search("ap*")).containsExactly(1L, 2L, 3L);
+        assertThat(search("apr* fresh")).containsExactly(3L);
+        assertThat(search("fresh-ap*")).containsExactly(1L, 3L);
+        assertThat(search("zz*")).isEmpty();
+    }
+
+    @Test
+    void testSearch_PaginatesByIdAfterCursor() {
+        assertThat(index.search("ap*", Long.MIN_VALUE, 2)).containsExactly(1L, 2L);
+        assertThat(index.search("ap*", 2L, 2)).containsExactly(3L);
+        assertThat(index.search("ap* fruit", 1L, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void testSearch_WithoutTerms() {
+        assertThatThrownBy(() -> index.search("  -- * ", Long.MIN_VALUE, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testIndex_ReplacesPreviousTermsUnlessOlder() {
+        index.index(item(2L, 1L, "Green pear", "Sour fruit"));
+        assertThat(search("apple")).containsExactly(1L);
+        assertThat(search("pear")).containsExactly(2L);
+
+        index.index(item(2L, 0L, "Green apple", "Sour fruit"));
+        assertThat(search("pear")).containsExactly(2L);
+    }
+
+    @Test
+    void testPatch_KeepsUnchangedField() {
+        index.patch(4L, null, "Yellow fruit");
+        index.patch(1L, "Red plum", null);
+        index.patch(99L, "Unknown", null);
+
+        assertThat(search("banana yellow")).containsExactly(4L);
+        assertThat(search("plum orchard")).containsExactly(1L);
+        assertThat(search("apple")).containsExactly(2L);
+        assertThat(search("unknown")).isEmpty();
+    }
+
+    @Test
+    void testRemove_DropsEmptyTerms() {
+        ItemSearchStats before = index.stats();
+
+        index.remove(4L);
+
+        assertThat(search("banana")).isEmpty();
+        ItemSearchStats after = index.stats();
+        assertThat(after.items()).isEqualTo(3);
+        assertThat(after.terms()).isEqualTo(before.terms() - 1);
+        assertThat(after.estimatedBytes()).isLessThan(before.estimatedBytes());
+    }
+
+    @Test
+    void testStats() {
+        ItemSearchStats stats = index.stats();
+
+        assertThat(stats.items()).isEqualTo(4);
+        //red, apple, fresh, fruit, from, the, orchard, green, sour, apricot, jam, made, apricots, banana
+        assertThat(stats.terms()).isEqualTo(14);
+        assertThat(stats.postings()).isEqualTo(18);
+        assertThat(stats.estimatedBytes()).isPositive();
+    }
+
+    private List<Long> search(String query) {
+        return Arrays.stream(index.search(query, Long.MIN_VALUE, Integer.MAX_VALUE)).boxed().toList();
+    }
+
+    private static Item item(Long id, Long version, String name, String description) {
+        Item item = new Item(id, name, description, ItemStatus.NEW, "a@b.com");
+        item.setVersion(version);
+        return item;
+    }
+}
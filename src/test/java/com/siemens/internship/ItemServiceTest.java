@@ -3,12 +3,21 @@ package com.siemens.internship;
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @SpringBootTest
 class ItemServiceTest {
@@ -19,11 +28,95 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
-    private final Item mockItem = new Item(1L, "Test", "Test Desc", "NEW", "a@b.com");
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ItemCache itemCache = new ItemCache(100, Duration.ofMinutes(1));
+
+    @Spy
+    private ItemProcessingExecutor processingExecutor =
+            new ItemProcessingExecutor(Executors.newFixedThreadPool(2), 2, Duration.ofSeconds(1));
+
+    @Mock
+    private ItemLeaseManager leaseManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ItemStatusBuffer statusBuffer = new ItemStatusBuffer(jdbcTemplate, itemCache, false, 10, Duration.ofSeconds(1));
+
+    @Spy
+    private ProcessingAdmission processingAdmission = new ProcessingAdmission(1, Duration.ofSeconds(5));
+
+    @Spy
+    private ItemMetrics itemMetrics = new ItemMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private ItemSearchIndex searchIndex = new ItemSearchIndex(jdbcTemplate);
+
+    @Mock
+    private ItemJournal journal;
+
+    @Mock
+    private ItemJsonCache jsonCache;
+
+    @Mock
+    private ItemPipeline pipeline;
+
+    @InjectMocks
+    private ProcessingRunService runService;
+
+    @Mock
+    private ProcessingRunRepository runRepository;
+
+    @Mock
+    private ItemDeadLetterRepository deadLetterRepository;
+
+    @Spy
+    private ItemRetryPolicy retryPolicy = new ItemRetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5));
+
+    private final Item mockItem = new Item(1L, "Test", "Test Desc", ItemStatus.NEW, "a@b.com");
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        mockItem.setVersion(0L);
+        ReflectionTestUtils.setField(itemService, "runService", runService);
+        when(runRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingExecutor.close();
+    }
+
+    /**
+     * @return {@code item} with a version, as every item loaded from the database has one
+     */
+    private static Item stored(Item item) {
+        item.setVersion(0L);
+        return item;
+    }
+
+    @Test
+    void testFindPendingIds() {
+        when(itemRepository.findIdsByStatus(ItemStatus.NEW)).thenReturn(List.of(1L, 3L));
+
+        assertThat(itemService.findPendingIds()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void testCountByStatus_FillsMissingStatuses() {
+        StatusCount newCount = mock(StatusCount.class);
+        when(newCount.getStatus()).thenReturn(ItemStatus.NEW);
+        when(newCount.getCount()).thenReturn(4L);
+        when(itemRepository.countByStatus()).thenReturn(List.of(newCount));
+
+        Map<ItemStatus, Long> counts = itemService.countByStatus();
+
+        assertThat(counts).containsEntry(ItemStatus.NEW, 4L).containsEntry(ItemStatus.PROCESSED, 0L);
     }
 
     @Test
@@ -36,6 +129,40 @@ class ItemServiceTest {
         assertThat(result).containsExactlyElementsOf(items);
     }
 
+    @Test
+    void testFindPage_FullPageHasNextCursor() {
+        Item item2 = new Item(2L, "B", "desc", ItemStatus.NEW, "b@b.com");
+        when(itemRepository.findPageAfter(eq(Long.MIN_VALUE), any())).thenReturn(List.of(mockItem, item2));
+
+        ItemPage page = itemService.findPage(null, 2);
+
+        assertThat(page.items()).containsExactly(mockItem, item2);
+        assertThat(page.nextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    void testFindPage_LastPage() {
+        when(itemRepository.findPageAfter(eq(1L), any())).thenReturn(List.of());
+
+        ItemPage page = itemService.findPage(1L, 2);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void testStreamAll_DetachesEachItem() {
+        Item item2 = new Item(2L, "B", "desc", ItemStatus.NEW, "b@b.com");
+        when(itemRepository.streamAll()).thenReturn(Stream.of(mockItem, item2));
+        List<Item> consumed = new ArrayList<>();
+
+        itemService.streamAll(consumed::add);
+
+        assertThat(consumed).containsExactly(mockItem, item2);
+        verify(entityManager).detach(mockItem);
+        verify(entityManager).detach(item2);
+    }
+
     @Test
     void testFindById_Found() {
         when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem));
@@ -46,6 +173,39 @@ class ItemServiceTest {
         assertThat(result.get()).isEqualTo(mockItem);
     }
 
+    @Test
+    void testFindById_CachesResult() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem));
+
+        itemService.findById(1L);
+        Optional<Item> result = itemService.findById(1L);
+
+        assertThat(result).contains(mockItem);
+        verify(itemRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testSave_InvalidatesCachedItem() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem));
+        when(itemRepository.save(mockItem)).thenReturn(mockItem);
+
+        itemService.findById(1L);
+        itemService.save(mockItem);
+        itemService.findById(1L);
+
+        verify(itemRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testDeleteById_InvalidatesCachedItem() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem), Optional.empty());
+
+        itemService.findById(1L);
+        itemService.deleteById(1L);
+
+        assertThat(itemService.findById(1L)).isEmpty();
+    }
+
     @Test
     void testFindById_NotFound() {
         when(itemRepository.findById(2L)).thenReturn(Optional.empty());
@@ -64,6 +224,86 @@ class ItemServiceTest {
         assertThat(saved).isEqualTo(mockItem);
     }
 
+    @Test
+    void testSaveAll() {
+        List<Item> items = List.of(mockItem);
+        when(itemRepository.saveAll(items)).thenReturn(items);
+
+        assertThat(itemService.saveAll(items)).containsExactly(mockItem);
+        verify(itemRepository).saveAll(items);
+    }
+
+    @Test
+    void testPatch_Found() {
+        when(itemRepository.patch(1L, "renamed", null, ItemStatus.NEW, null)).thenReturn(1);
+
+        boolean updated = itemService.patch(1L, new ItemPatch("renamed", null, null, null));
+
+        assertThat(updated).isTrue();
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testSaveAndDelete_KeepSearchIndexInSync() {
+        Item saved = new Item(5L, "Blue chair", "Wooden", ItemStatus.NEW, "a@b.com");
+        saved.setVersion(0L);
+        when(itemRepository.save(any())).thenReturn(saved);
+        when(itemRepository.patch(5L, "Blue table", null, ItemStatus.NEW, null)).thenReturn(1);
+
+        itemService.save(saved);
+        assertThat(searchIndex.search("chair", Long.MIN_VALUE, 10)).containsExactly(5L);
+
+        itemService.patch(5L, new ItemPatch("Blue table", null, null, null));
+        assertThat(searchIndex.search("chair", Long.MIN_VALUE, 10)).isEmpty();
+        assertThat(searchIndex.search("table wooden", Long.MIN_VALUE, 10)).containsExactly(5L);
+
+        itemService.deleteById(5L);
+        assertThat(searchIndex.search("table", Long.MIN_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    void testSearch_LoadsOnePageInIdOrder() {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Item item = new Item(id, "Lamp " + id, "desc", ItemStatus.NEW, "a@b.com");
+            item.setVersion(0L);
+            items.add(item);
+        }
+        when(itemRepository.saveAll(items)).thenReturn(items);
+        itemService.saveAll(items);
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(items.get(1), items.get(0)));
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(items.get(2)));
+
+        ItemPage first = itemService.search("lamp", null, 2);
+        ItemPage last = itemService.search("lamp", first.nextCursor(), 2);
+
+        assertThat(first.items()).extracting(Item::getId).containsExactly(1L, 2L);
+        assertThat(first.nextCursor()).isEqualTo(2L);
+        assertThat(last.items()).extracting(Item::getId).containsExactly(3L);
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void testPatch_StatusOnly() {
+        when(itemRepository.patch(1L, null, null, ItemStatus.PROCESSED, null)).thenReturn(1);
+
+        assertThat(itemService.patch(1L, new ItemPatch(null, null, ItemStatus.PROCESSED, null))).isTrue();
+    }
+
+    @Test
+    void testPatch_NotFound() {
+        when(itemRepository.patch(eq(2L), any(), any(), any(), any())).thenReturn(0);
+
+        assertThat(itemService.patch(2L, new ItemPatch("renamed", null, null, null))).isFalse();
+    }
+
+    @Test
+    void testPatch_InvalidEmail() {
+        assertThatThrownBy(() -> itemService.patch(1L, new ItemPatch(null, null, null, "not-an-email")))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(itemRepository, never()).patch(any(), any(), any(), any(), any());
+    }
+
     @Test
     void testDeleteById() {
         doNothing().when(itemRepository).deleteById(1L);
@@ -75,14 +315,69 @@ class ItemServiceTest {
 
     @Test
     void testProcessItem_Success() {
-        Item expected = new Item(1L, "Test", "Desc", "PROCESSED", "a@b.com");
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem));
-        when(itemRepository.save(any(Item.class))).thenReturn(expected);
+        Item item = new Item(1L, "Test", "Desc", ItemStatus.NEW, "a@b.com");
+        item.setVersion(4L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.updateStatus(1L, ItemStatus.PROCESSED, 4L)).thenReturn(1);
 
         Item result = itemService.processItem(1L);
 
-        assertThat(result.getStatus()).isEqualTo("PROCESSED");
-        verify(itemRepository).save(any(Item.class));
+        assertThat(result.getStatus()).isEqualTo(ItemStatus.PROCESSED);
+        assertThat(result.getVersion()).isEqualTo(5L);
+        verify(itemRepository).updateStatus(1L, ItemStatus.PROCESSED, 4L);
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
+    @Test
+    void testProcessItem_WriteBehindDefersUpdateAndOverlaysReads() {
+        ItemStatusBuffer buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 10, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(itemService, "statusBuffer", buffer);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any())).thenReturn(new int[][]{{1}});
+        Item item = new Item(1L, "Test", "Desc", ItemStatus.NEW, "a@b.com");
+        item.setVersion(3L);
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item))
+                .thenAnswer(invocation -> {
+                    Item stored = new Item(1L, "Test", "Desc", ItemStatus.NEW, "a@b.com");
+                    stored.setVersion(3L);
+                    return Optional.of(stored);
+                });
+
+        itemService.processItem(1L);
+
+        verify(itemRepository, never()).updateStatus(anyLong(), any(), any());
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(itemService.findById(1L)).get().extracting(Item::getStatus).isEqualTo(ItemStatus.PROCESSED);
+        buffer.close();
+    }
+
+    @Test
+    void testProcessItem_RecordsPhasesAndCounts() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(stored(new Item(1L, "Test", "Desc", ItemStatus.NEW, "a@b.com"))));
+        when(itemRepository.updateStatus(1L, ItemStatus.PROCESSED, 0L)).thenReturn(1);
+        when(itemRepository.findById(2L)).thenReturn(Optional.empty());
+
+        itemService.processItem(1L);
+        assertThatThrownBy(() -> itemService.processItem(2L)).hasMessage("Item not found");
+
+        assertThat(itemMetrics.phaseTimer(ItemMetrics.Phase.FETCH).count()).isEqualTo(1);
+        assertThat(itemMetrics.phaseTimer(ItemMetrics.Phase.TRANSFORM).count()).isEqualTo(1);
+        assertThat(itemMetrics.phaseTimer(ItemMetrics.Phase.SAVE).count()).isEqualTo(1);
+        assertThat(itemMetrics.processedCount()).isEqualTo(1);
+        //failed attempts are not items given up on, the run counts those
+        assertThat(itemMetrics.failedCount()).isZero();
+    }
+
+    @Test
+    void testProcessItem_ChangedOrDeletedConcurrently() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem));
+        when(itemRepository.updateStatus(1L, ItemStatus.PROCESSED, 0L)).thenReturn(0);
+
+        //transient, so a retry reads the new content and processes that
+        assertThatThrownBy(() -> itemService.processItem(1L))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("changed concurrently");
+        verify(itemCache, never()).invalidate(anyLong());
     }
 
     @Test
@@ -97,36 +392,247 @@ class ItemServiceTest {
     @Test
     void testProcessItemsAsync_Success() throws Exception {
         List<Long> ids = List.of(1L, 2L);
-        Item item1 = new Item(1L, "A", "desc", "NEW", "a@b.com");
-        Item item2 = new Item(2L, "B", "desc", "NEW", "b@b.com");
+        Item item1 = stored(new Item(1L, "A", "desc", ItemStatus.NEW, "a@b.com"));
+        Item item2 = stored(new Item(2L, "B", "desc", ItemStatus.NEW, "b@b.com"));
 
-        when(itemRepository.findAllIds()).thenReturn(ids);
+        when(leaseManager.claim(any(), any())).thenReturn(ids, List.of());
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item1));
         when(itemRepository.findById(2L)).thenReturn(Optional.of(item2));
-        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
-            Item i = invocation.getArgument(0);
-            i.setStatus("PROCESSED");
-            return i;
-        });
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
 
         CompletableFuture<List<Item>> future = itemService.processItemsAsync();
         List<Item> result = future.get(5, TimeUnit.SECONDS);
 
         assertThat(result).hasSize(2);
-        assertThat(result).allMatch(item -> "PROCESSED".equals(item.getStatus()));
+        assertThat(result).allMatch(item -> ItemStatus.PROCESSED.equals(item.getStatus()));
+    }
+
+    @Test
+    void testProcessItemsAsync_RunsDoNotAccumulate() throws Exception {
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L), List.of(), List.of(1L), List.of());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(mockItem));
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+
+        itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+        List<Item> secondRun = itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+
+        assertThat(secondRun).hasSize(1);
     }
 
     @Test
-    void testProcessItemsAsync_WithMissingItem() {
-        List<Long> ids = List.of(1L);
-        when(itemRepository.findAllIds()).thenReturn(ids);
+    void testProcessItemsAsync_WithMissingItem_SkipsItAndCompletes() throws Exception {
+        List<Long> ids = List.of(1L, 2L);
+        when(leaseManager.claim(any(), any())).thenReturn(ids, List.of());
         when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(stored(new Item(2L, "B", "desc", ItemStatus.NEW, "b@b.com"))));
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
 
-        CompletableFuture<List<Item>> future = itemService.processItemsAsync();
+        List<Item> result = itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
 
-        assertThatThrownBy(future::join)
-                .isInstanceOf(CompletionException.class)
-                .hasCauseInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Item not found");
+        assertThat(result).extracting(Item::getId).containsExactly(2L);
+        //deleted after it was claimed: nothing left to dead-letter
+        verify(deadLetterRepository, never()).save(any());
+        verify(itemRepository, never()).updateStatus(eq(1L), eq(ItemStatus.FAILED), any());
+        verify(itemRepository, never()).updateStatus(anyLong(), any());
+    }
+
+    @Test
+    void testProcessItemsAsync_RecordsCompletedRunWithCheckpoint() throws Exception {
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(itemRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(stored(new Item(invocation.getArgument(0), "A", "desc", ItemStatus.NEW, "a@b.com"))));
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+
+        itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<ProcessingRun> run = ArgumentCaptor.forClass(ProcessingRun.class);
+        verify(runRepository, timeout(1000).times(5)).save(run.capture());
+        ProcessingRun stored = run.getValue();
+        assertThat(stored.getState()).isEqualTo(ProcessingRun.State.COMPLETED);
+        assertThat(stored.getCheckpoint()).isEqualTo(3L);
+        assertThat(stored.getClaimed()).isEqualTo(3);
+        assertThat(stored.getProcessed()).isEqualTo(3);
+        verify(leaseManager).claim(any(), eq(Long.MIN_VALUE));
+        verify(leaseManager).claim(any(), eq(2L));
+        verify(leaseManager).claim(any(), eq(3L));
+    }
+
+    @Test
+    void testProcessItemsInChunks() {
+        when(itemRepository.findIdsByStatusAfter(eq(ItemStatus.NEW), eq(Long.MIN_VALUE), any())).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findIdsByStatusAfter(eq(ItemStatus.NEW), eq(2L), any())).thenReturn(List.of(3L));
+        when(itemRepository.findIdsByStatusAfter(eq(ItemStatus.NEW), eq(3L), any())).thenReturn(List.of());
+        when(itemRepository.updateStatusByIds(anyCollection(), eq(ItemStatus.PROCESSED)))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).size());
+
+        ProcessingReport report = itemService.processItemsInChunks(2);
+
+        assertThat(report.processed()).isEqualTo(3);
+        verify(itemRepository).updateStatusByIds(List.of(1L, 2L), ItemStatus.PROCESSED);
+        verify(itemRepository).updateStatusByIds(List.of(3L), ItemStatus.PROCESSED);
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testProcessItemsStreaming_RejectedWhileAnotherRunIsInProgress() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L), List.of(), List.of(1L), List.of());
+        when(itemRepository.findById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(mockItem);
+        });
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+        ItemProcessingListener ignore = new ItemProcessingListener() {
+            @Override
+            public void onProcessed(Item item) {
+            }
+
+            @Override
+            public void onFailed(Long itemId, Throwable error) {
+            }
+        };
+
+        CompletableFuture<ProcessingReport> first = itemService.processItemsStreaming(1, ignore);
+
+        assertThatThrownBy(() -> itemService.processItemsStreaming(1, ignore))
+                .isInstanceOf(ProcessingRejectedException.class)
+                .satisfies(e -> assertThat(((ProcessingRejectedException) e).getStatus().value()).isEqualTo(429));
+        assertThatThrownBy(() -> itemService.processItemsInChunks(10)).isInstanceOf(ProcessingRejectedException.class);
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(itemService.processItemsStreaming(1, ignore).get(5, TimeUnit.SECONDS).processed()).isEqualTo(1);
+    }
+
+    @Test
+    void testProcessItemsInPipeline_RunsWithinAdmission() {
+        ItemPipelineReport report = new ItemPipelineReport(new ProcessingReport(3, 0, 1, 3000.0), List.of());
+        when(pipeline.run()).thenAnswer(invocation -> {
+            assertThat(processingAdmission.getActiveRuns()).isEqualTo(1);
+            return report;
+        });
+
+        assertThat(itemService.processItemsInPipeline()).isSameAs(report);
+        assertThat(processingAdmission.getActiveRuns()).isZero();
+    }
+
+    @Test
+    void testProcessItemsAsync_QueueFullIsReportedAsServiceUnavailable() {
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L), List.of());
+        doReturn(CompletableFuture.failedFuture(new RejectedExecutionException("Item processing queue is full")))
+                .when(processingExecutor).submitWindowed(anyList(), anyInt(), any(), any());
+
+        assertThatThrownBy(() -> itemService.processItemsAsync().join())
+                .hasCauseInstanceOf(ProcessingRejectedException.class)
+                .satisfies(e -> assertThat(((ProcessingRejectedException) e.getCause()).getStatus().value()).isEqualTo(503));
+        assertThat(processingAdmission.getActiveRuns()).isZero();
+    }
+
+    @Test
+    void testProcessItemsAsync_ProcessesClaimedChunksAndReleasesLeases() throws Exception {
+        when(leaseManager.newOwner()).thenReturn("node/1");
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(itemRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(stored(new Item(invocation.getArgument(0), "A", "desc", ItemStatus.NEW, "a@b.com"))));
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+
+        List<Item> processed = itemService.processItemsAsync().get(5, TimeUnit.SECONDS);
+
+        assertThat(processed).extracting(Item::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(leaseManager, times(3)).claim(eq("node/1"), any());
+        verify(leaseManager, timeout(1000)).release("node/1");
+        verify(itemRepository, never()).findIdsByStatus(any());
+    }
+
+    @Test
+    void testProcessItemsInChunks_InvalidChunkSize() {
+        assertThatThrownBy(() -> itemService.processItemsInChunks(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testProcessItemsStreaming_DeliversEveryResult() throws Exception {
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L, 2L, 3L), List.of());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(stored(new Item(1L, "A", "desc", ItemStatus.NEW, "a@b.com"))));
+        when(itemRepository.findById(2L)).thenReturn(Optional.empty());
+        when(itemRepository.findById(3L)).thenReturn(Optional.of(stored(new Item(3L, "C", "desc", ItemStatus.NEW, "c@b.com"))));
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+        List<Long> processedIds = Collections.synchronizedList(new ArrayList<>());
+        List<Long> failedIds = Collections.synchronizedList(new ArrayList<>());
+
+        ProcessingReport report = itemService.processItemsStreaming(2, new ItemProcessingListener() {
+            @Override
+            public void onProcessed(Item item) {
+                processedIds.add(item.getId());
+            }
+
+            @Override
+            public void onFailed(Long itemId, Throwable error) {
+                assertThat(error).hasMessageContaining("Item not found");
+                failedIds.add(itemId);
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(processedIds).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(failedIds).containsExactly(2L);
+        assertThat(report.processed()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(1);
+    }
+
+    @Test
+    void testProcessItemsStreaming_SlowListenerLimitsInFlightItems() throws Exception {
+        List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L, 6L);
+        AtomicInteger fetched = new AtomicInteger();
+        when(leaseManager.claim(any(), any())).thenReturn(ids, List.of());
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> {
+            fetched.incrementAndGet();
+            return Optional.of(stored(new Item(invocation.getArgument(0), "A", "desc", ItemStatus.NEW, "a@b.com")));
+        });
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+        CountDownLatch firstDelivery = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ProcessingReport> run = itemService.processItemsStreaming(1, new ItemProcessingListener() {
+            @Override
+            public void onProcessed(Item item) {
+                firstDelivery.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onFailed(Long itemId, Throwable error) {
+            }
+        });
+
+        assertThat(firstDelivery.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(150);
+        assertThat(fetched.get()).isEqualTo(1);
+        release.countDown();
+        assertThat(run.get(5, TimeUnit.SECONDS).processed()).isEqualTo(ids.size());
+    }
+
+    @Test
+    void testProcessItemsStreaming_ListenerFailureAbortsRun() {
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L, 2L), List.of());
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(mockItem));
+        when(itemRepository.updateStatus(anyLong(), eq(ItemStatus.PROCESSED), any())).thenReturn(1);
+
+        CompletableFuture<ProcessingReport> run = itemService.processItemsStreaming(1, new ItemProcessingListener() {
+            @Override
+            public void onProcessed(Item item) {
+                throw new IllegalStateException("client gone");
+            }
+
+            @Override
+            public void onFailed(Long itemId, Throwable error) {
+            }
+        });
+
+        assertThatThrownBy(() -> run.get(5, TimeUnit.SECONDS)).hasMessageContaining("client gone");
+        verify(itemRepository, times(1)).findById(anyLong());
     }
 }
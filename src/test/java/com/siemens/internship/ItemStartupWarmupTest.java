@@ -0,0 +1,49 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application with the {@code faststart} profile, where beans are created lazily.
+ */
+class ItemStartupWarmupTest {
+
+    @Test
+    void testFastStartProfile_StartsEagerBeansOnlyAndServesItems() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=faststart",
+                        "--spring.datasource.url=jdbc:h2:mem:faststart;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false")) {
+            //created at startup although nothing depends on them
+            assertThat(context.getBeanFactory().containsSingleton("itemJournal")).isTrue();
+            assertThat(context.getBeanFactory().containsSingleton("itemSearchIndex")).isTrue();
+            assertThat(context.getBeanFactory().containsSingleton("itemStartupWarmup")).isTrue();
+            //created on first use
+            assertThat(context.getBeanFactory().containsSingleton("itemController")).isFalse();
+
+            ItemService itemService = context.getBean(ItemService.class);
+            Item saved = itemService.save(new Item(null, "Lazy apple", "desc", ItemStatus.NEW, "a@b.com"));
+
+            assertThat(itemService.findById(saved.getId())).isPresent();
+            assertThat(itemService.search("apple", null, 10).items())
+                    .extracting(Item::getId)
+                    .containsExactly(saved.getId());
+        }
+    }
+
+    @Test
+    void testWarmUp_DisabledDoesNothing() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+
+        new ItemStartupWarmup(entityManagerFactory, false).warmUp();
+
+        verifyNoInteractions(entityManagerFactory);
+    }
+}
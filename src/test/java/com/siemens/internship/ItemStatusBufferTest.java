@@ -0,0 +1,134 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+//the buffer flushes from its own thread, so the test data must be committed rather than rolled back
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemStatusBufferTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ItemCache itemCache = new ItemCache(100, Duration.ofMinutes(1));
+
+    private ItemStatusBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.close();
+        }
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testFlush_CoalescesChangesOfTheSameItem() {
+        buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 100, Duration.ofMinutes(1));
+        List<Item> items = seed(3);
+
+        items.forEach(item -> buffer.record(item.getId(), ItemStatus.PROCESSED, item.getVersion()));
+        buffer.record(items.get(0).getId(), ItemStatus.PROCESSED, items.get(0).getVersion());
+
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.PROCESSED)).isEmpty();
+        assertThat(buffer.flush()).isEqualTo(3);
+        assertThat(buffer.size()).isZero();
+        assertThat(itemRepository.findAll())
+                .allSatisfy(item -> {
+                    assertThat(item.getStatus()).isEqualTo(ItemStatus.PROCESSED);
+                    assertThat(item.getVersion()).isEqualTo(1L);
+                });
+    }
+
+    @Test
+    void testFlush_DropsChangesSupersededByLaterWrites() {
+        buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 100, Duration.ofMinutes(1));
+        Item item = seed(1).get(0);
+        buffer.record(item.getId(), ItemStatus.PROCESSED, item.getVersion());
+
+        itemRepository.patch(item.getId(), "renamed", null, ItemStatus.NEW, null);
+
+        assertThat(buffer.flush()).isZero();
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getStatus()).isEqualTo(ItemStatus.NEW);
+    }
+
+    @Test
+    void testOverlay_ShowsPendingStatusOfTheSameVersionOnly() {
+        buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 100, Duration.ofMinutes(1));
+        Item item = seed(1).get(0);
+        buffer.record(item.getId(), ItemStatus.PROCESSED, item.getVersion());
+
+        Item overlaid = buffer.overlay(item);
+        Item newer = new Item(item.getId(), item.getName(), item.getDescription(), ItemStatus.NEW, item.getEmail());
+        newer.setVersion(item.getVersion() + 1);
+
+        assertThat(overlaid).isNotSameAs(item);
+        assertThat(overlaid.getStatus()).isEqualTo(ItemStatus.PROCESSED);
+        assertThat(item.getStatus()).isEqualTo(ItemStatus.NEW);
+        assertThat(buffer.overlay(newer)).isSameAs(newer);
+    }
+
+    @Test
+    void testSizeThresholdTriggersFlush() throws Exception {
+        buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 2, Duration.ofMinutes(1));
+        List<Item> items = seed(2);
+
+        items.forEach(item -> buffer.record(item.getId(), ItemStatus.PROCESSED, item.getVersion()));
+
+        awaitProcessed(2);
+    }
+
+    @Test
+    void testTimeThresholdTriggersFlush() throws Exception {
+        buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 100, Duration.ofMillis(20));
+        Item item = seed(1).get(0);
+
+        buffer.record(item.getId(), ItemStatus.PROCESSED, item.getVersion());
+
+        awaitProcessed(1);
+    }
+
+    @Test
+    void testClose_FlushesAndLaterChangesAreWrittenThrough() {
+        buffer = new ItemStatusBuffer(jdbcTemplate, itemCache, true, 100, Duration.ofMinutes(1));
+        List<Item> items = seed(2);
+        buffer.record(items.get(0).getId(), ItemStatus.PROCESSED, items.get(0).getVersion());
+
+        buffer.close();
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.PROCESSED)).containsExactly(items.get(0).getId());
+
+        buffer.record(items.get(1).getId(), ItemStatus.PROCESSED, items.get(1).getVersion());
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.PROCESSED)).hasSize(2);
+        assertThat(buffer.size()).isZero();
+    }
+
+    private List<Item> seed(int count) {
+        return itemRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new Item(null, "Item" + i, "desc", ItemStatus.NEW, "item" + i + "@example.com"))
+                .toList());
+    }
+
+    private void awaitProcessed(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (itemRepository.findIdsByStatus(ItemStatus.PROCESSED).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(itemRepository.findIdsByStatus(ItemStatus.PROCESSED)).hasSize(count);
+    }
+}
@@ -0,0 +1,49 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+class ProcessingAdmissionTest {
+
+    private final ProcessingAdmission admission = new ProcessingAdmission(1, Duration.ofSeconds(5));
+
+    @Test
+    void testSubmit_RejectsWhileRunIsInProgressAndReleasesOnCompletion() {
+        CompletableFuture<String> run = new CompletableFuture<>();
+
+        assertThat(admission.submit(() -> run)).isSameAs(run);
+        assertThatThrownBy(() -> admission.submit(CompletableFuture::new))
+                .isInstanceOf(ProcessingRejectedException.class)
+                .satisfies(e -> {
+                    ProcessingRejectedException rejected = (ProcessingRejectedException) e;
+                    assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(rejected.retryAfterSeconds()).isEqualTo("5");
+                });
+
+        run.cancel(false);
+        assertThat(admission.getActiveRuns()).isZero();
+    }
+
+    @Test
+    void testRun_ReleasesWhenRunFails() {
+        assertThatThrownBy(() -> admission.run(() -> {
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        assertThat(admission.run(() -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    void testSubmit_ReleasesWhenRunCannotStart() {
+        assertThatThrownBy(() -> admission.submit(() -> {
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        assertThat(admission.getActiveRuns()).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package com.siemens.internship;
+
+import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+class ProcessingJobControllerTest {
+
+    @InjectMocks
+    private ProcessingJobController processingJobController;
+
+    @Mock
+    private ProcessingJobService processingJobService;
+
+    private final ProcessingJob job = new ProcessingJob();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testStartJob() {
+        when(processingJobService.startJob()).thenReturn(job);
+
+        ResponseEntity<ProcessingJobStatus> response = processingJobController.startJob();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getLocation()).hasToString("/api/items/jobs/" + job.getId());
+        assertThat(response.getBody().id()).isEqualTo(job.getId());
+    }
+
+    @Test
+    void testStartJob_TooManyJobs() {
+        when(processingJobService.startJob()).thenThrow(new IllegalStateException("Too many running processing jobs"));
+
+        ResponseEntity<ProcessingJobStatus> response = processingJobController.startJob();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void testStartJob_TooManyRuns() {
+        when(processingJobService.startJob()).thenThrow(new ProcessingRejectedException(
+                "Too many processing runs in progress", HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(5)));
+
+        ResponseEntity<ProcessingJobStatus> response = processingJobController.startJob();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    @Test
+    void testGetJob_Found() {
+        when(processingJobService.findJob(job.getId())).thenReturn(Optional.of(job));
+
+        ResponseEntity<ProcessingJobStatus> response = processingJobController.getJob(job.getId());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().state()).isEqualTo(ProcessingJob.State.RUNNING);
+    }
+
+    @Test
+    void testGetJob_NotFound() {
+        when(processingJobService.findJob("missing")).thenReturn(Optional.empty());
+
+        assertThat(processingJobController.getJob("missing").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testCancelJob() {
+        job.cancel();
+        when(processingJobService.cancelJob(job.getId())).thenReturn(Optional.of(job));
+
+        ResponseEntity<ProcessingJobStatus> response = processingJobController.cancelJob(job.getId());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().state()).isEqualTo(ProcessingJob.State.CANCELLED);
+    }
+
+    @Test
+    void testCancelJob_NotFound() {
+        when(processingJobService.cancelJob("missing")).thenReturn(Optional.empty());
+
+        assertThat(processingJobController.cancelJob("missing").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,222 @@
+package com.siemens.internship;
+
+import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class ProcessingJobServiceTest {
+
+    @InjectMocks
+    private ProcessingJobService processingJobService;
+
+    @Mock
+    private ItemService itemService;
+
+    @Spy
+    private ItemProcessingExecutor processingExecutor =
+            new ItemProcessingExecutor(Executors.newFixedThreadPool(1), 1, Duration.ofSeconds(1));
+
+    @Mock
+    private ItemLeaseManager leaseManager;
+
+    @Mock
+    private ItemStatusBuffer statusBuffer;
+
+    @Spy
+    private ProcessingAdmission processingAdmission = new ProcessingAdmission(1, Duration.ofSeconds(5));
+
+    @InjectMocks
+    private ProcessingRunService runService;
+
+    @Mock
+    private ProcessingRunRepository runRepository;
+
+    @Mock
+    private ItemDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private ItemMetrics itemMetrics;
+
+    @Spy
+    private ItemRetryPolicy retryPolicy = new ItemRetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5));
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(processingJobService, "runService", runService);
+        when(runRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingExecutor.close();
+    }
+
+    @Test
+    void testStartJob_CountsProcessedAndFailed() throws Exception {
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L, 2L, 3L), List.of());
+        when(itemService.processItem(1L)).thenReturn(new Item(1L, "A", "desc", ItemStatus.PROCESSED, "a@b.com"));
+        when(itemService.processItem(2L)).thenThrow(new RuntimeException("Item not found"));
+        when(itemService.processItem(3L)).thenReturn(new Item(3L, "C", "desc", ItemStatus.PROCESSED, "c@b.com"));
+
+        ProcessingJob job = processingJobService.startJob();
+        awaitFinished(job);
+
+        ProcessingJobStatus status = job.snapshot();
+        assertThat(status.state()).isEqualTo(ProcessingJob.State.COMPLETED);
+        assertThat(status.error()).isNull();
+        assertThat(status.total()).isEqualTo(3);
+        assertThat(status.processed()).isEqualTo(2);
+        assertThat(status.failed()).isEqualTo(1);
+        assertThat(processingJobService.findJob(job.getId())).contains(job);
+    }
+
+    @Test
+    void testStartJob_RunFailureFailsTheJob() throws Exception {
+        when(leaseManager.claim(any(), any()))
+                .thenReturn(List.of(1L))
+                .thenThrow(new IllegalStateException("Database unavailable"));
+        when(itemService.processItem(1L)).thenReturn(new Item(1L, "A", "desc", ItemStatus.PROCESSED, "a@b.com"));
+
+        ProcessingJob job = processingJobService.startJob();
+        awaitFinished(job);
+
+        ProcessingJobStatus status = job.snapshot();
+        assertThat(status.state()).isEqualTo(ProcessingJob.State.FAILED);
+        assertThat(status.error()).isEqualTo("Database unavailable");
+        assertThat(status.processed()).isEqualTo(1);
+        assertThat(status.finishedAt()).isNotNull();
+    }
+
+    @Test
+    void testCancelJob_SkipsPendingItems() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L, 2L, 3L), List.of());
+        when(itemService.processItem(anyLong())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Item(invocation.getArgument(0), "A", "desc", ItemStatus.PROCESSED, "a@b.com");
+        });
+
+        ProcessingJob job = processingJobService.startJob();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        processingJobService.cancelJob(job.getId());
+        release.countDown();
+
+        assertThat(job.snapshot().state()).isEqualTo(ProcessingJob.State.CANCELLED);
+        processingExecutor.close();
+        verify(itemService, times(1)).processItem(anyLong());
+    }
+
+    @Test
+    void testFindJob_Unknown() {
+        assertThat(processingJobService.findJob("missing")).isEmpty();
+        assertThat(processingJobService.cancelJob("missing")).isEmpty();
+    }
+
+    @Test
+    void testFinishedJobsExpireAfterTtl() throws Exception {
+        ReflectionTestUtils.setField(processingJobService, "jobTtl", Duration.ZERO);
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(), List.of());
+
+        ProcessingJob job = processingJobService.startJob();
+        awaitFinished(job);
+        Thread.sleep(5);
+
+        assertThat(processingJobService.findJob(job.getId())).isEmpty();
+    }
+
+    @Test
+    void testStartJob_RejectedWhenAllRetainedJobsAreRunning() {
+        ReflectionTestUtils.setField(processingJobService, "maxRetainedJobs", 1);
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L), List.of());
+        when(itemService.processItem(1L)).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        });
+
+        processingJobService.startJob();
+
+        assertThatThrownBy(() -> processingJobService.startJob()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testStartJob_RejectedWhileAnotherRunIsInProgress() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(leaseManager.claim(any(), any())).thenReturn(List.of(1L), List.of());
+        when(itemService.processItem(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new Item(1L, "A", "desc", ItemStatus.PROCESSED, "a@b.com");
+        });
+
+        ProcessingJob first = processingJobService.startJob();
+
+        assertThatThrownBy(() -> processingJobService.startJob())
+                .isInstanceOf(ProcessingRejectedException.class);
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(processingJobService.startJob());
+    }
+
+    @Test
+    void testResumeJob_ContinuesRunFromCheckpoint() throws Exception {
+        ProcessingRun run = ProcessingRun.start();
+        run.setId(3L);
+        run.setCheckpoint(10L);
+        when(runRepository.acquire(eq(3L), any(), any(), any(), any())).thenReturn(1);
+        when(runRepository.findById(3L)).thenReturn(Optional.of(run));
+        when(leaseManager.getLeaseDuration()).thenReturn(Duration.ofMinutes(5));
+        when(leaseManager.claim(any(), eq(10L))).thenReturn(List.of(11L));
+        when(leaseManager.claim(any(), eq(11L))).thenReturn(List.of());
+        when(itemService.processItem(11L)).thenReturn(new Item(11L, "A", "desc", ItemStatus.PROCESSED, "a@b.com"));
+
+        ProcessingJob job = processingJobService.resumeJob(3L).orElseThrow();
+        awaitFinished(job);
+
+        assertThat(job.snapshot().runId()).isEqualTo(3L);
+        assertThat(job.snapshot().processed()).isEqualTo(1);
+        assertThat(processingJobService.resumeJob(4L)).isEmpty();
+    }
+
+    @Test
+    void testResumeJob_NotAdmittedRunIsInterruptedAgain() {
+        ProcessingRun run = ProcessingRun.start();
+        when(runRepository.acquire(eq(3L), any(), any(), any(), any())).thenReturn(1);
+        when(runRepository.findById(3L)).thenReturn(Optional.of(run));
+        when(leaseManager.getLeaseDuration()).thenReturn(Duration.ofMinutes(5));
+        doThrow(new ProcessingRejectedException("Too many processing runs in progress",
+                HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(5)))
+                .when(processingAdmission).submit(any());
+
+        assertThatThrownBy(() -> processingJobService.resumeJob(3L)).isInstanceOf(ProcessingRejectedException.class);
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.INTERRUPTED);
+    }
+
+    private static void awaitFinished(ProcessingJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(job.isFinished()).isTrue();
+    }
+}
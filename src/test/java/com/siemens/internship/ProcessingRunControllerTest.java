@@ -0,0 +1,84 @@
+package com.siemens.internship;
+
+import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+class ProcessingRunControllerTest {
+
+    @InjectMocks
+    private ProcessingRunController processingRunController;
+
+    @Mock
+    private ProcessingRunService processingRunService;
+
+    @Mock
+    private ProcessingJobService processingJobService;
+
+    private final ProcessingRun run = ProcessingRun.start();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        run.setId(1L);
+    }
+
+    @Test
+    void testGetRun() {
+        when(processingRunService.findRun(1L)).thenReturn(Optional.of(run));
+
+        assertThat(processingRunController.getRun(1L).getBody()).isSameAs(run);
+        assertThat(processingRunController.getRun(2L).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testGetDeadLetters() {
+        ItemDeadLetter deadLetter = new ItemDeadLetter(5L, 1L, 1, new RuntimeException("Item not found"));
+        when(processingRunService.findRun(1L)).thenReturn(Optional.of(run));
+        when(processingRunService.findDeadLetters(1L)).thenReturn(List.of(deadLetter));
+
+        assertThat(processingRunController.getDeadLetters(1L).getBody()).containsExactly(deadLetter);
+        assertThat(processingRunController.getDeadLetters(2L).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testResumeRun() {
+        ProcessingJob job = new ProcessingJob();
+        when(processingRunService.findRun(1L)).thenReturn(Optional.of(run));
+        when(processingJobService.resumeJob(1L)).thenReturn(Optional.of(job));
+
+        ResponseEntity<ProcessingJobStatus> response = processingRunController.resumeRun(1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getLocation()).hasToString("/api/items/jobs/" + job.getId());
+    }
+
+    @Test
+    void testResumeRun_UnknownOrNotResumable() {
+        when(processingRunService.findRun(1L)).thenReturn(Optional.of(run));
+        when(processingJobService.resumeJob(1L)).thenReturn(Optional.empty());
+
+        assertThat(processingRunController.resumeRun(1L).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(processingRunController.resumeRun(2L).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testResumeRun_TooManyRuns() {
+        when(processingRunService.findRun(1L)).thenReturn(Optional.of(run));
+        when(processingJobService.resumeJob(1L)).thenThrow(new ProcessingRejectedException(
+                "Too many processing runs in progress", HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(5)));
+
+        ResponseEntity<ProcessingJobStatus> response = processingRunController.resumeRun(1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+}
@@ -0,0 +1,57 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ProcessingRunRepositoryTest {
+
+    @Autowired
+    private ProcessingRunRepository runRepository;
+
+    @Test
+    void testAcquire_InterruptedRunOnlyOnce() {
+        ProcessingRun run = ProcessingRun.start();
+        run.setState(ProcessingRun.State.INTERRUPTED);
+        run.setFinishedAt(Instant.now());
+        Long id = runRepository.save(run).getId();
+        Instant now = Instant.now();
+
+        assertThat(acquire(id, now, now.minusSeconds(300))).isEqualTo(1);
+        assertThat(acquire(id, now, now.minusSeconds(300))).isZero();
+
+        ProcessingRun acquired = runRepository.findById(id).orElseThrow();
+        assertThat(acquired.getState()).isEqualTo(ProcessingRun.State.RUNNING);
+        assertThat(acquired.getFinishedAt()).isNull();
+    }
+
+    @Test
+    void testAcquire_RunningRunOnlyOnceStale() {
+        ProcessingRun run = ProcessingRun.start();
+        run.setUpdatedAt(Instant.now().minusSeconds(600));
+        Long id = runRepository.save(run).getId();
+        Instant now = Instant.now();
+
+        assertThat(acquire(id, now, now.minusSeconds(900))).isZero();
+        assertThat(acquire(id, now, now.minusSeconds(300))).isEqualTo(1);
+    }
+
+    @Test
+    void testAcquire_NeverCompletedRun() {
+        ProcessingRun run = ProcessingRun.start();
+        run.setState(ProcessingRun.State.COMPLETED);
+        Long id = runRepository.save(run).getId();
+        Instant now = Instant.now();
+
+        assertThat(acquire(id, now, now)).isZero();
+    }
+
+    private int acquire(Long id, Instant now, Instant staleBefore) {
+        return runRepository.acquire(id, now, staleBefore, ProcessingRun.State.RUNNING, ProcessingRun.State.INTERRUPTED);
+    }
+}
@@ -0,0 +1,291 @@
+package com.siemens.internship;
+
+import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class ProcessingRunServiceTest {
+
+    @InjectMocks
+    private ProcessingRunService runService;
+
+    @Mock
+    private ProcessingRunRepository runRepository;
+
+    @Mock
+    private ItemDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemLeaseManager leaseManager;
+
+    @Spy
+    private ItemProcessingExecutor processingExecutor =
+            new ItemProcessingExecutor(Executors.newFixedThreadPool(2), 2, Duration.ofSeconds(1));
+
+    @Mock
+    private ItemStatusBuffer statusBuffer;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private ItemMetrics itemMetrics;
+
+    @Spy
+    private ItemRetryPolicy retryPolicy = new ItemRetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5));
+
+    private final ItemProcessingListener ignore = new ItemProcessingListener() {
+        @Override
+        public void onProcessed(Item item) {
+        }
+
+        @Override
+        public void onFailed(Long itemId, Throwable error) {
+        }
+    };
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(runRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(leaseManager.newOwner()).thenReturn("node/1");
+        when(leaseManager.getLeaseDuration()).thenReturn(Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingExecutor.close();
+    }
+
+    @Test
+    void testExecute_RetriesTransientFailures() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L), List.of());
+
+        ProcessingRun run = runService.begin();
+        ProcessingReport report = runService.execute(run, 1, id -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("Lock timeout");
+            }
+            return item(id);
+        }, ignore).get(5, TimeUnit.SECONDS);
+
+        assertThat(report.processed()).isEqualTo(1);
+        assertThat(attempts).hasValue(3);
+        awaitFinished(run);
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.COMPLETED);
+        assertThat(run.getRetried()).isEqualTo(2);
+        assertThat(run.getCheckpoint()).isEqualTo(1L);
+        verify(deadLetterRepository, never()).save(any());
+        verify(itemMetrics, times(2)).retried();
+        verify(itemMetrics, never()).failed();
+        verify(leaseManager, timeout(5000)).release("node/1");
+    }
+
+    @Test
+    void testExecute_ExhaustedRetriesLeaveItemPendingAndStopTheCheckpoint() throws Exception {
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L, 2L, 3L), List.of(4L), List.of());
+        Function<Long, Item> task = id -> {
+            if (id == 2L) {
+                throw new CannotAcquireLockException("Lock timeout");
+            }
+            return item(id);
+        };
+
+        ProcessingRun run = runService.begin();
+        ProcessingReport report = runService.execute(run, 2, task, ignore).get(5, TimeUnit.SECONDS);
+
+        assertThat(report.processed()).isEqualTo(3);
+        assertThat(report.failed()).isEqualTo(1);
+        awaitFinished(run);
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.INTERRUPTED);
+        assertThat(run.getCheckpoint()).isEqualTo(1L);
+        assertThat(run.getRetried()).isEqualTo(2);
+        verify(deadLetterRepository, never()).save(any());
+        verify(itemRepository, never()).updateStatus(anyLong(), any(), any());
+        //three failed attempts, one failed item
+        verify(itemMetrics, times(1)).failed();
+    }
+
+    @Test
+    void testExecute_DeadLettersPermanentFailuresWithoutRetrying() throws Exception {
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L, 2L), List.of());
+        List<ItemVersion> versions = List.of(version(1L, 3L), version(2L, 0L));
+        when(itemRepository.findVersions(List.of(1L, 2L))).thenReturn(versions);
+        when(itemRepository.updateStatus(1L, ItemStatus.FAILED, 3L)).thenReturn(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        ProcessingRun run = runService.begin();
+        run.setId(7L);
+        runService.execute(run, 2, id -> {
+            if (id == 1L) {
+                attempts.incrementAndGet();
+                throw new IllegalArgumentException("Invalid email format");
+            }
+            return item(id);
+        }, ignore).get(5, TimeUnit.SECONDS);
+
+        awaitFinished(run);
+        assertThat(attempts).hasValue(1);
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.COMPLETED);
+        assertThat(run.getCheckpoint()).isEqualTo(2L);
+        assertThat(run.getDeadLettered()).isEqualTo(1);
+        assertThat(run.getProcessed()).isEqualTo(1);
+        ArgumentCaptor<ItemDeadLetter> deadLetter = ArgumentCaptor.forClass(ItemDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getRunId()).isEqualTo(7L);
+        assertThat(deadLetter.getValue().getError()).isEqualTo("Invalid email format");
+        verify(itemRepository).updateStatus(1L, ItemStatus.FAILED, 3L);
+        verify(itemCache).invalidate(1L);
+        verify(itemMetrics).deadLettered();
+        verify(itemMetrics, times(1)).failed();
+    }
+
+    @Test
+    void testExecute_ItemChangedSinceClaimIsNotDeadLettered() throws Exception {
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L, 2L), List.of());
+        List<ItemVersion> versions = List.of(version(1L, 3L), version(2L, 0L));
+        when(itemRepository.findVersions(List.of(1L, 2L))).thenReturn(versions);
+        //a PUT between the claim and the failure bumped the version
+        when(itemRepository.updateStatus(1L, ItemStatus.FAILED, 3L)).thenReturn(0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        ProcessingRun run = runService.begin();
+        runService.execute(run, 2, id -> {
+            if (id == 1L) {
+                throw new IllegalArgumentException("Invalid email format");
+            }
+            return item(id);
+        }, ignore).get(5, TimeUnit.SECONDS);
+
+        awaitFinished(run);
+        //the changed item stays pending for a later run
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.INTERRUPTED);
+        assertThat(run.getCheckpoint()).isNull();
+        assertThat(run.getDeadLettered()).isZero();
+        verify(deadLetterRepository, never()).save(any());
+        verify(itemRepository, never()).updateStatus(anyLong(), any());
+        verify(itemMetrics, never()).deadLettered();
+        verify(itemMetrics, never()).failed();
+    }
+
+    @Test
+    void testExecute_FlushesBufferedStatusesBeforeEveryCheckpoint() throws Exception {
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L), List.of());
+
+        ProcessingRun run = runService.begin();
+        runService.execute(run, 1, this::item, ignore).get(5, TimeUnit.SECONDS);
+
+        awaitFinished(run);
+        InOrder inOrder = inOrder(statusBuffer, runRepository);
+        inOrder.verify(statusBuffer).flush();
+        inOrder.verify(runRepository).save(run);
+    }
+
+    @Test
+    void testExecute_ResumedRunContinuesBehindItsCheckpoint() throws Exception {
+        ProcessingRun run = ProcessingRun.start();
+        run.setCheckpoint(40L);
+        run.setClaimed(40);
+        run.setProcessed(38);
+        run.setDeadLettered(2);
+        when(leaseManager.claim("node/1", 40L)).thenReturn(List.of(41L, 42L));
+        when(leaseManager.claim("node/1", 42L)).thenReturn(List.of());
+
+        runService.execute(run, 2, this::item, ignore).get(5, TimeUnit.SECONDS);
+
+        awaitFinished(run);
+        assertThat(run.getCheckpoint()).isEqualTo(42L);
+        assertThat(run.getClaimed()).isEqualTo(42);
+        assertThat(run.getProcessed()).isEqualTo(40);
+        assertThat(run.getDeadLettered()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecute_CancelledRunIsInterrupted() throws Exception {
+        when(leaseManager.claim(eq("node/1"), any())).thenReturn(List.of(1L, 2L, 3L), List.of());
+        AtomicInteger calls = new AtomicInteger();
+
+        ProcessingRun run = runService.begin();
+        var future = runService.execute(run, 1, id -> {
+            calls.incrementAndGet();
+            sleep(200);
+            return item(id);
+        }, ignore);
+        future.cancel(true);
+
+        awaitFinished(run);
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.INTERRUPTED);
+        assertThat(run.getCheckpoint()).isNull();
+        verify(leaseManager, timeout(5000)).release("node/1");
+        processingExecutor.close();
+        assertThat(calls.get()).isLessThanOrEqualTo(1);
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void testResume_OnlyWhenTheRunCanBeTakenOver() {
+        ProcessingRun run = ProcessingRun.start();
+        when(runRepository.acquire(eq(1L), any(), any(), eq(ProcessingRun.State.RUNNING), eq(ProcessingRun.State.INTERRUPTED)))
+                .thenReturn(1);
+        when(runRepository.findById(1L)).thenReturn(Optional.of(run));
+
+        assertThat(runService.resume(1L)).contains(run);
+        assertThat(runService.resume(2L)).isEmpty();
+    }
+
+    @Test
+    void testAbandon_MarksRunInterrupted() {
+        ProcessingRun run = ProcessingRun.start();
+
+        runService.abandon(run);
+
+        assertThat(run.getState()).isEqualTo(ProcessingRun.State.INTERRUPTED);
+        assertThat(run.getFinishedAt()).isNotNull();
+        verify(runRepository).save(run);
+    }
+
+    private static ItemVersion version(Long id, Long version) {
+        ItemVersion itemVersion = mock(ItemVersion.class);
+        when(itemVersion.getId()).thenReturn(id);
+        when(itemVersion.getVersion()).thenReturn(version);
+        return itemVersion;
+    }
+
+    private Item item(Long id) {
+        return new Item(id, "A", "desc", ItemStatus.PROCESSED, "a@b.com");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted", e);
+        }
+    }
+
+    private static void awaitFinished(ProcessingRun run) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (run.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(run.getFinishedAt()).isNotNull();
+    }
+}